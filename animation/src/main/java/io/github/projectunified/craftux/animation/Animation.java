@@ -7,41 +7,92 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * Manages a sequence of frames that cycle over time with a specified period.
  * Provides methods to get the current frame based on elapsed time and reset the animation.
+ * Every frame can have its own duration, in which case the frame is located by a binary search over the accumulated durations.
+ * The frame list is read live: the accumulated durations are computed again when the amount of frames changes,
+ * and the frames added after the durations are set reuse the last duration.
  *
  * <p>Example usage:</p>
  * <pre>{@code
  * List<String> frames = Arrays.asList("Frame1", "Frame2", "Frame3");
  * Animation<String> animation = new Animation<>(frames, 1000); // 1 second per frame
  * String current = animation.getCurrentFrame(); // Gets current frame based on time
+ *
+ * TickClock clock = new TickClock();
+ * Animation<String> tickAnimation = new Animation<>(frames, 1000, AnimationMode.REPEAT, clock); // Driven by the game ticks
+ *
+ * long[] durations = {2000, 250, 250};
+ * Animation<String> pingPong = new Animation<>(frames, durations, AnimationMode.PING_PONG, clock); // Frame1 is held for 2 seconds
  * }</pre>
  *
  * @param <T> the frame type
  */
 public class Animation<T> {
+    /**
+     * The time returned when the frame never changes anymore.
+     * It's the same value as {@code TimedElement.NEVER} in the common module.
+     */
+    public static final long NEVER = Long.MAX_VALUE;
+
     private final List<T> frames;
-    private final long periodMillis;
+    private final long[] frameDurations;
     private final AnimationMode mode;
+    private final AnimationClock clock;
     private final AtomicLong startMillis = new AtomicLong(-1);
+    private final AtomicLong pausedMillis = new AtomicLong(-1);
+    private volatile Timing timing = null;
+    private volatile FrameCache<T> frameCache = null;
 
     /**
-     * Creates a new Animation with the specified frames and period.
+     * Creates a new Animation with the specified frames and the duration of every frame.
      *
-     * @param frames       the list of frames to cycle through
-     * @param periodMillis the period in milliseconds between frame changes
-     * @param mode         the mode of the animation
-     * @throws IllegalArgumentException if frames is empty or periodMillis is not positive
+     * @param frames         the list of frames to cycle through
+     * @param frameDurations the duration in milliseconds of every frame. The frames without a duration reuse the last duration
+     * @param mode           the mode of the animation
+     * @param clock          the clock to read the current time from
+     * @throws IllegalArgumentException if frames is empty, frameDurations is empty, or any duration is not positive
      */
-    public Animation(List<T> frames, long periodMillis, AnimationMode mode) {
+    public Animation(List<T> frames, long[] frameDurations, AnimationMode mode, AnimationClock clock) {
         if (frames.isEmpty()) {
             throw new IllegalArgumentException("Frames cannot be empty");
         }
-        if (periodMillis <= 0) {
-            throw new IllegalArgumentException("Period must be positive");
+        if (frameDurations.length == 0) {
+            throw new IllegalArgumentException("Durations cannot be empty");
+        }
+        for (long duration : frameDurations) {
+            if (duration <= 0) {
+                throw new IllegalArgumentException("Duration must be positive");
+            }
         }
 
         this.frames = frames;
-        this.periodMillis = periodMillis;
+        this.frameDurations = frameDurations.clone();
         this.mode = mode;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a new Animation with the specified frames and period.
+     *
+     * @param frames       the list of frames to cycle through
+     * @param periodMillis the period in milliseconds between frame changes
+     * @param mode         the mode of the animation
+     * @param clock        the clock to read the current time from
+     * @throws IllegalArgumentException if frames is empty or periodMillis is not positive
+     */
+    public Animation(List<T> frames, long periodMillis, AnimationMode mode, AnimationClock clock) {
+        this(frames, uniformDurations(periodMillis), mode, clock);
+    }
+
+    /**
+     * Creates a new Animation with the specified frames and period.
+     *
+     * @param frames       the list of frames to cycle through
+     * @param periodMillis the period in milliseconds between frame changes
+     * @param mode         the mode of the animation
+     * @throws IllegalArgumentException if frames is empty or periodMillis is not positive
+     */
+    public Animation(List<T> frames, long periodMillis, AnimationMode mode) {
+        this(frames, periodMillis, mode, AnimationClock.SYSTEM);
     }
 
     /**
@@ -55,6 +106,23 @@ public class Animation<T> {
         this(frames, periodMillis, AnimationMode.REPEAT);
     }
 
+    private static long[] uniformDurations(long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        return new long[]{periodMillis};
+    }
+
+    private Timing getTiming() {
+        Timing timing = this.timing;
+        int frameCount = frames.size();
+        if (timing == null || timing.frameCount != frameCount) {
+            timing = new Timing(frameDurations, frameCount, mode);
+            this.timing = timing;
+        }
+        return timing;
+    }
+
     /**
      * Get the frames
      *
@@ -65,38 +133,176 @@ public class Animation<T> {
     }
 
     /**
-     * Get the frame based on the current time
+     * Get the clock
      *
-     * @param currentMillis the current time in milliseconds
-     * @return the frame
+     * @return the clock
      */
-    public T getCurrentFrame(long currentMillis) {
+    public AnimationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Get the duration of a full cycle of the animation.
+     * For {@link AnimationMode#PING_PONG}, it includes both the forward and the backward pass.
+     *
+     * @return the duration in milliseconds
+     */
+    public long getCycleMillis() {
+        return getTiming().cycleMillis;
+    }
+
+    /**
+     * Get the start time of the animation
+     *
+     * @return the start time in milliseconds, or -1 if the animation is not started
+     */
+    public long getStartMillis() {
+        return startMillis.get();
+    }
+
+    private long startIfNeeded(long currentMillis) {
         long startMillis = this.startMillis.get();
         if (startMillis < 0) {
-            startMillis = currentMillis;
-            this.startMillis.set(startMillis);
+            this.startMillis.compareAndSet(-1, currentMillis);
+            startMillis = this.startMillis.get();
         }
+        return startMillis;
+    }
+
+    /**
+     * Get the frame of the animation started at the start time.
+     * This method doesn't depend on the state of the animation, so the same animation can be shared by multiple timelines.
+     *
+     * @param startMillis   the start time in milliseconds
+     * @param currentMillis the current time in milliseconds
+     * @return the frame
+     */
+    public T getFrame(long startMillis, long currentMillis) {
+        return getFrame(getTiming(), startMillis, currentMillis);
+    }
 
-        if (!isFirstRun(currentMillis)) {
+    private T getFrame(Timing timing, long startMillis, long currentMillis) {
+        if (timing.frameCount == 0) return null;
+        if (currentMillis - startMillis >= timing.cycleMillis) {
             if (mode == AnimationMode.ONE_TIME) {
                 return null;
             } else if (mode == AnimationMode.ONE_TIME_KEEP_LAST) {
-                return frames.getLast();
+                return frames.get(timing.frameCount - 1);
             }
         }
 
-        long diff = currentMillis - startMillis;
-        int index = (int) (diff / periodMillis) % frames.size();
-        return frames.get(index);
+        long diff = Math.max(0, currentMillis - startMillis);
+        return frames.get(timing.getFrameIndex(diff % timing.cycleMillis));
+    }
+
+    /**
+     * Get the frame based on the current time.
+     * The frame is cached, so the animations read at the same time only compute the frame once.
+     *
+     * @param currentMillis the current time in milliseconds
+     * @return the frame
+     */
+    public T getCurrentFrame(long currentMillis) {
+        long pausedMillis = this.pausedMillis.get();
+        if (pausedMillis >= 0) {
+            currentMillis = pausedMillis;
+        }
+        long startMillis = startIfNeeded(currentMillis);
+        Timing timing = getTiming();
+        FrameCache<T> cache = this.frameCache;
+        if (cache != null && cache.timing == timing && cache.startMillis == startMillis && cache.currentMillis == currentMillis) {
+            return cache.frame;
+        }
+        T frame = getFrame(timing, startMillis, currentMillis);
+        this.frameCache = new FrameCache<>(timing, startMillis, currentMillis, frame);
+        return frame;
     }
 
     /**
-     * Get the frame based on the current time
+     * Get the frame based on the current time of the clock
      *
      * @return the frame
      */
     public T getCurrentFrame() {
-        return getCurrentFrame(System.currentTimeMillis());
+        return getCurrentFrame(clock.currentMillis());
+    }
+
+    /**
+     * Get the time of the next frame change of the animation started at the start time
+     *
+     * @param startMillis   the start time in milliseconds
+     * @param currentMillis the current time in milliseconds
+     * @return the time of the next frame change in milliseconds, or {@link #NEVER} if the frame doesn't change anymore
+     */
+    public long getNextFrameChangeMillis(long startMillis, long currentMillis) {
+        Timing timing = getTiming();
+        if (timing.frameCount == 0 || (timing.frameCount == 1 && mode != AnimationMode.ONE_TIME)) {
+            return NEVER;
+        }
+        boolean repeating = mode != AnimationMode.ONE_TIME && mode != AnimationMode.ONE_TIME_KEEP_LAST;
+        if (!repeating && currentMillis - startMillis >= timing.cycleMillis) {
+            return NEVER;
+        }
+        long diff = Math.max(0, currentMillis - startMillis);
+        long cycleTime = diff % timing.cycleMillis;
+        return startMillis + (diff - cycleTime) + timing.getFrameChangeCycleTime(cycleTime);
+    }
+
+    /**
+     * Get the time of the next frame change
+     *
+     * @param currentMillis the current time in milliseconds
+     * @return the time of the next frame change in milliseconds, the current time if the animation is not started,
+     * or {@link #NEVER} if the frame doesn't change anymore or the animation is paused
+     */
+    public long getNextFrameChangeMillis(long currentMillis) {
+        long startMillis = this.startMillis.get();
+        if (startMillis < 0) return currentMillis;
+        if (pausedMillis.get() >= 0) return NEVER;
+        return getNextFrameChangeMillis(startMillis, currentMillis);
+    }
+
+    /**
+     * Get the time of the next frame change based on the current time of the clock
+     *
+     * @return the time of the next frame change in milliseconds
+     * @see #getNextFrameChangeMillis(long)
+     */
+    public long getNextFrameChangeMillis() {
+        return getNextFrameChangeMillis(clock.currentMillis());
+    }
+
+    /**
+     * Pause the animation. The current frame is kept until the animation is resumed.
+     * Nothing happens if the animation is not started or already paused.
+     *
+     * @param currentMillis the current time in milliseconds
+     */
+    public void pause(long currentMillis) {
+        if (this.startMillis.get() >= 0) {
+            this.pausedMillis.compareAndSet(-1, currentMillis);
+        }
+    }
+
+    /**
+     * Resume the animation from the frame it was paused at
+     *
+     * @param currentMillis the current time in milliseconds
+     */
+    public void resume(long currentMillis) {
+        long pausedMillis = this.pausedMillis.getAndSet(-1);
+        if (pausedMillis >= 0) {
+            this.startMillis.getAndAdd(Math.max(0, currentMillis - pausedMillis));
+        }
+    }
+
+    /**
+     * Check if the animation is paused
+     *
+     * @return true if it is
+     */
+    public boolean isPaused() {
+        return pausedMillis.get() >= 0;
     }
 
     /**
@@ -104,6 +310,19 @@ public class Animation<T> {
      */
     public void reset() {
         this.startMillis.set(-1);
+        this.pausedMillis.set(-1);
+        this.frameCache = null;
+    }
+
+    /**
+     * Check if it's the first run of the animation started at the start time
+     *
+     * @param startMillis   the start time in milliseconds
+     * @param currentMillis the current time in milliseconds
+     * @return true if it's the first run
+     */
+    public boolean isFirstRun(long startMillis, long currentMillis) {
+        return currentMillis - startMillis < getTiming().cycleMillis;
     }
 
     /**
@@ -114,15 +333,135 @@ public class Animation<T> {
      */
     public boolean isFirstRun(long currentMillis) {
         long startMillis = this.startMillis.get();
-        return startMillis < 0 || currentMillis - startMillis < periodMillis * frames.size();
+        return startMillis < 0 || isFirstRun(startMillis, currentMillis);
     }
 
     /**
-     * Check if it's the first run. It will return true if the animation is running for the first time.
+     * Check if it's the first run based on the current time of the clock. It will return true if the animation is running for the first time.
      *
      * @return true if it's the first run
      */
     public boolean isFirstRun() {
-        return isFirstRun(System.currentTimeMillis());
+        return isFirstRun(clock.currentMillis());
+    }
+
+    /**
+     * The accumulated durations of the frames, computed for an amount of frames
+     */
+    private static final class Timing {
+        private final int frameCount;
+        private final long[] frameEnds;
+        private final long periodMillis;
+        private final long totalMillis;
+        private final long cycleMillis;
+        private final AnimationMode mode;
+
+        private Timing(long[] frameDurations, int frameCount, AnimationMode mode) {
+            this.frameCount = frameCount;
+            this.mode = mode;
+            this.frameEnds = new long[frameCount];
+            long total = 0;
+            boolean uniform = true;
+            for (int i = 0; i < frameCount; i++) {
+                long duration = getDuration(frameDurations, i);
+                uniform &= duration == frameDurations[0];
+                total += duration;
+                frameEnds[i] = total;
+            }
+            this.periodMillis = uniform ? frameDurations[0] : -1;
+            this.totalMillis = total;
+            if (mode == AnimationMode.PING_PONG && frameCount > 2) {
+                this.cycleMillis = 2 * total - getDuration(frameDurations, 0) - getDuration(frameDurations, frameCount - 1);
+            } else {
+                this.cycleMillis = Math.max(1, total);
+            }
+        }
+
+        private static long getDuration(long[] frameDurations, int index) {
+            return frameDurations[Math.min(index, frameDurations.length - 1)];
+        }
+
+        /**
+         * Find the frame at the time since the start of a forward pass
+         *
+         * @param passMillis the time in the pass, in the range [0, totalMillis)
+         * @return the index of the frame
+         */
+        private int findFrameIndex(long passMillis) {
+            if (periodMillis > 0) {
+                return (int) (passMillis / periodMillis);
+            }
+            int low = 0;
+            int high = frameEnds.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (frameEnds[mid] > passMillis) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        private long getFrameStartMillis(int index) {
+            return index == 0 ? 0 : frameEnds[index - 1];
+        }
+
+        /**
+         * Get the frame index at the time since the start of a cycle
+         *
+         * @param cycleTime the time in the cycle, in the range [0, cycleMillis)
+         * @return the index of the frame
+         */
+        private int getFrameIndex(long cycleTime) {
+            switch (mode) {
+                case REVERSE:
+                    return findFrameIndex(totalMillis - 1 - cycleTime);
+                case PING_PONG:
+                    if (cycleTime < totalMillis) {
+                        return findFrameIndex(cycleTime);
+                    }
+                    return findFrameIndex(frameEnds[frameEnds.length - 2] - 1 - (cycleTime - totalMillis));
+                default:
+                    return findFrameIndex(cycleTime);
+            }
+        }
+
+        /**
+         * Get the time since the start of a cycle when the frame at the time changes
+         *
+         * @param cycleTime the time in the cycle, in the range [0, cycleMillis)
+         * @return the time in the cycle when the frame changes
+         */
+        private long getFrameChangeCycleTime(long cycleTime) {
+            switch (mode) {
+                case REVERSE:
+                    return totalMillis - getFrameStartMillis(findFrameIndex(totalMillis - 1 - cycleTime));
+                case PING_PONG:
+                    if (cycleTime < totalMillis) {
+                        return frameEnds[findFrameIndex(cycleTime)];
+                    }
+                    long backwardEnd = frameEnds[frameEnds.length - 2];
+                    int index = findFrameIndex(backwardEnd - 1 - (cycleTime - totalMillis));
+                    return totalMillis + backwardEnd - getFrameStartMillis(index);
+                default:
+                    return frameEnds[findFrameIndex(cycleTime)];
+            }
+        }
+    }
+
+    private static final class FrameCache<T> {
+        private final Timing timing;
+        private final long startMillis;
+        private final long currentMillis;
+        private final T frame;
+
+        private FrameCache(Timing timing, long startMillis, long currentMillis, T frame) {
+            this.timing = timing;
+            this.startMillis = startMillis;
+            this.currentMillis = currentMillis;
+            this.frame = frame;
+        }
     }
 }
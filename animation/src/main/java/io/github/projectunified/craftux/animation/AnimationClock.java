@@ -0,0 +1,31 @@
+package io.github.projectunified.craftux.animation;
+
+/**
+ * The source of time for {@link Animation}.
+ * Animations sharing the same clock read the same time, so their frames stay consistent with each other.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * SnapshotClock clock = new SnapshotClock();
+ * animatedButton.setClock(clock);
+ * animatedMask.setClock(clock);
+ *
+ * // On every tick
+ * clock.snapshot(); // All the animations read this timestamp until the next snapshot
+ * ui.update();
+ * }</pre>
+ */
+@FunctionalInterface
+public interface AnimationClock {
+    /**
+     * The clock reading the system time on every call
+     */
+    AnimationClock SYSTEM = System::currentTimeMillis;
+
+    /**
+     * Get the current time
+     *
+     * @return the current time in milliseconds
+     */
+    long currentMillis();
+}
@@ -15,5 +15,13 @@ public enum AnimationMode {
     /**
      * The {@link Animation#getCurrentFrame(long)}} will return the last element of the {@link Animation#getFrames()} if the animation is completed ({@link Animation#isFirstRun(long)} returns false)
      */
-    ONE_TIME_KEEP_LAST
+    ONE_TIME_KEEP_LAST,
+    /**
+     * The frames will be played backward, from the last frame to the first frame, and repeated
+     */
+    REVERSE,
+    /**
+     * The frames will be played forward and then backward, without repeating the first and the last frame, and repeated
+     */
+    PING_PONG
 }
@@ -0,0 +1,260 @@
+package io.github.projectunified.craftux.animation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the animation state of the unique ids according to the {@link TimelineMode}.
+ * The shared animation is only created in {@link TimelineMode#SYNCHRONIZED} and {@link TimelineMode#PHASE_OFFSET} modes,
+ * and the phase offset of a unique id is kept as primitive times.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * AnimationTimeline<String> timeline = new AnimationTimeline<>(() -> new Animation<>(frames, 500), TimelineMode.SYNCHRONIZED);
+ * String frame = timeline.getCurrentFrame(playerUUID); // The same frame for all the players
+ * }</pre>
+ *
+ * @param <T> the frame type
+ */
+public class AnimationTimeline<T> {
+    private final Supplier<Animation<T>> animationSupplier;
+    private final TimelineMode mode;
+    private final @Nullable AnimationClock clock;
+    private final Map<UUID, Animation<T>> animationMap = new ConcurrentHashMap<>();
+    private final Map<UUID, Phase> phaseMap = new ConcurrentHashMap<>();
+    private volatile Animation<T> sharedAnimation;
+
+    /**
+     * Create a new timeline
+     *
+     * @param animationSupplier the supplier of the animation
+     * @param mode              the timeline mode
+     * @param clock             the clock to read the current time from, or null to use the clock of the animation
+     */
+    public AnimationTimeline(@NotNull Supplier<Animation<T>> animationSupplier, @NotNull TimelineMode mode, @Nullable AnimationClock clock) {
+        this.animationSupplier = animationSupplier;
+        this.mode = mode;
+        this.clock = clock;
+    }
+
+    /**
+     * Create a new timeline that reads the current time from the clock of the animation
+     *
+     * @param animationSupplier the supplier of the animation
+     * @param mode              the timeline mode
+     */
+    public AnimationTimeline(@NotNull Supplier<Animation<T>> animationSupplier, @NotNull TimelineMode mode) {
+        this(animationSupplier, mode, null);
+    }
+
+    private Animation<T> getSharedAnimation() {
+        Animation<T> animation = this.sharedAnimation;
+        if (animation == null) {
+            synchronized (this) {
+                animation = this.sharedAnimation;
+                if (animation == null) {
+                    animation = animationSupplier.get();
+                    this.sharedAnimation = animation;
+                }
+            }
+        }
+        return animation;
+    }
+
+    /**
+     * Get the timeline mode
+     *
+     * @return the timeline mode
+     */
+    @NotNull
+    public TimelineMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Get the frame for the unique id at the time. The animation of the unique id starts if it's not started.
+     *
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     * @return the frame
+     */
+    public @Nullable T getCurrentFrame(@NotNull UUID uuid, long currentMillis) {
+        switch (mode) {
+            case SYNCHRONIZED:
+                return getSharedAnimation().getCurrentFrame(currentMillis);
+            case PHASE_OFFSET:
+                Phase phase = phaseMap.computeIfAbsent(uuid, k -> new Phase(currentMillis));
+                long startMillis;
+                long frameMillis;
+                synchronized (phase) {
+                    startMillis = phase.startMillis;
+                    frameMillis = phase.paused ? phase.pausedMillis : currentMillis;
+                }
+                return getSharedAnimation().getFrame(startMillis, frameMillis);
+            default:
+                return animationMap.computeIfAbsent(uuid, k -> animationSupplier.get()).getCurrentFrame(currentMillis);
+        }
+    }
+
+    /**
+     * Get the frame for the unique id based on the current time of the clock
+     *
+     * @param uuid the unique id
+     * @return the frame
+     */
+    public @Nullable T getCurrentFrame(@NotNull UUID uuid) {
+        if (clock == null && mode == TimelineMode.PER_VIEWER) {
+            Animation<T> animation = animationMap.computeIfAbsent(uuid, k -> animationSupplier.get());
+            return animation.getCurrentFrame(animation.getClock().currentMillis());
+        }
+        return getCurrentFrame(uuid, getClock().currentMillis());
+    }
+
+    /**
+     * Get the time of the next frame change for the unique id
+     *
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     * @return the time of the next frame change in milliseconds
+     * @see Animation#getNextFrameChangeMillis(long)
+     */
+    public long getNextFrameChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        switch (mode) {
+            case SYNCHRONIZED:
+                return getSharedAnimation().getNextFrameChangeMillis(currentMillis);
+            case PHASE_OFFSET:
+                Phase phase = phaseMap.get(uuid);
+                if (phase == null) return currentMillis;
+                long startMillis;
+                synchronized (phase) {
+                    if (phase.paused) return Animation.NEVER;
+                    startMillis = phase.startMillis;
+                }
+                return getSharedAnimation().getNextFrameChangeMillis(startMillis, currentMillis);
+            default:
+                Animation<T> animation = animationMap.get(uuid);
+                return animation == null ? currentMillis : animation.getNextFrameChangeMillis(currentMillis);
+        }
+    }
+
+    /**
+     * Pause the animation for the unique id.
+     * In {@link TimelineMode#SYNCHRONIZED} mode, nothing happens since the shared animation keeps running for the other unique ids.
+     *
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     */
+    public void pause(@NotNull UUID uuid, long currentMillis) {
+        switch (mode) {
+            case SYNCHRONIZED:
+                break;
+            case PHASE_OFFSET:
+                Phase phase = phaseMap.get(uuid);
+                if (phase != null) {
+                    synchronized (phase) {
+                        if (!phase.paused) {
+                            phase.paused = true;
+                            phase.pausedMillis = currentMillis;
+                        }
+                    }
+                }
+                break;
+            default:
+                Animation<T> animation = animationMap.get(uuid);
+                if (animation != null) {
+                    animation.pause(currentMillis);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Resume the animation for the unique id
+     *
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     */
+    public void resume(@NotNull UUID uuid, long currentMillis) {
+        switch (mode) {
+            case SYNCHRONIZED:
+                break;
+            case PHASE_OFFSET:
+                Phase phase = phaseMap.get(uuid);
+                if (phase != null) {
+                    synchronized (phase) {
+                        if (phase.paused) {
+                            phase.startMillis += Math.max(0, currentMillis - phase.pausedMillis);
+                            phase.paused = false;
+                        }
+                    }
+                }
+                break;
+            default:
+                Animation<T> animation = animationMap.get(uuid);
+                if (animation != null) {
+                    animation.resume(currentMillis);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Get the clock of the timeline
+     *
+     * @return the clock
+     */
+    @NotNull
+    public AnimationClock getClock() {
+        return clock != null ? clock : getSharedAnimation().getClock();
+    }
+
+    /**
+     * Reset the animation for the unique id.
+     * In {@link TimelineMode#SYNCHRONIZED} mode, the shared animation is reset for all the unique ids.
+     *
+     * @param uuid the unique id
+     */
+    public void reset(@NotNull UUID uuid) {
+        switch (mode) {
+            case SYNCHRONIZED:
+                getSharedAnimation().reset();
+                break;
+            case PHASE_OFFSET:
+                phaseMap.remove(uuid);
+                break;
+            default:
+                Animation<T> animation = animationMap.get(uuid);
+                if (animation != null) {
+                    animation.reset();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Remove the state of all the unique ids
+     */
+    public void clear() {
+        animationMap.clear();
+        phaseMap.clear();
+        Animation<T> animation = this.sharedAnimation;
+        if (animation != null) {
+            animation.reset();
+        }
+    }
+
+    private static final class Phase {
+        private long startMillis;
+        private long pausedMillis;
+        private boolean paused;
+
+        private Phase(long startMillis) {
+            this.startMillis = startMillis;
+        }
+    }
+}
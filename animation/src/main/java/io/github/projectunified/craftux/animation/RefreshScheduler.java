@@ -0,0 +1,214 @@
+package io.github.projectunified.craftux.animation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel that wakes the targets at their scheduled times.
+ * Scheduling, cancelling and advancing by one tick cost O(1) on average, regardless of the amount of scheduled targets,
+ * so a server can skip the GUIs whose animations don't change a frame in the current tick.
+ * A target is scheduled at most once: scheduling it again replaces the previous time.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * SnapshotClock clock = new SnapshotClock();
+ * RefreshScheduler<SpigotInventoryUI> scheduler = new RefreshScheduler<>();
+ * ui.setViewingListener(viewing -> {
+ *     if (viewing) {
+ *         scheduler.schedule(ui, clock.currentMillis()); // Render on the next tick when the inventory is opened
+ *     } else {
+ *         scheduler.cancel(ui); // Stop the updates when the inventory is closed
+ *     }
+ * });
+ * Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+ *     long now = clock.snapshot();
+ *     scheduler.advance(now, target -> {
+ *         target.update();
+ *         scheduler.schedule(target, TimedElement.getNextChangeMillis(target.getMask(), target.getViewerId(), now));
+ *     });
+ * }, 0, 1);
+ * }</pre>
+ *
+ * @param <T> the target type
+ */
+public class RefreshScheduler<T> {
+    private final long tickMillis;
+    private final Entry<T>[] wheel;
+    private final int wheelMask;
+    private final Map<T, Entry<T>> entryMap = new HashMap<>();
+    private long currentTick = Long.MIN_VALUE;
+
+    /**
+     * Create a new scheduler
+     *
+     * @param tickMillis the duration of a slot of the wheel in milliseconds
+     * @param wheelSize  the amount of slots of the wheel. It's rounded up to a power of two
+     * @throws IllegalArgumentException if tickMillis or wheelSize is not positive
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RefreshScheduler(long tickMillis, int wheelSize) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick millis must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Wheel size must be positive and at most 2^30");
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.wheel = new Entry[size];
+        this.wheelMask = size - 1;
+    }
+
+    /**
+     * Create a new scheduler with 50 milliseconds per slot and 512 slots
+     */
+    public RefreshScheduler() {
+        this(50, 512);
+    }
+
+    /**
+     * Schedule the target to be woken at the time.
+     * If the target is already scheduled, the previous time is replaced.
+     *
+     * @param target     the target
+     * @param timeMillis the time in milliseconds. If it's {@link Animation#NEVER}, the target is cancelled
+     */
+    public synchronized void schedule(@NotNull T target, long timeMillis) {
+        cancel(target);
+        if (timeMillis == Animation.NEVER) return;
+
+        long tick = timeMillis / tickMillis + (timeMillis % tickMillis > 0 ? 1 : 0);
+        if (currentTick != Long.MIN_VALUE && tick <= currentTick) {
+            tick = currentTick + 1;
+        }
+
+        Entry<T> entry = new Entry<>(target, tick);
+        int index = (int) (tick & wheelMask);
+        entry.next = wheel[index];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        wheel[index] = entry;
+        entryMap.put(target, entry);
+    }
+
+    /**
+     * Cancel the target
+     *
+     * @param target the target
+     * @return true if the target was scheduled
+     */
+    public synchronized boolean cancel(@NotNull T target) {
+        Entry<T> entry = entryMap.remove(target);
+        if (entry == null) return false;
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Check if the target is scheduled
+     *
+     * @param target the target
+     * @return true if it is
+     */
+    public synchronized boolean isScheduled(@NotNull T target) {
+        return entryMap.containsKey(target);
+    }
+
+    /**
+     * Get the amount of scheduled targets
+     *
+     * @return the amount of scheduled targets
+     */
+    public synchronized int size() {
+        return entryMap.size();
+    }
+
+    /**
+     * Cancel all the targets
+     */
+    public synchronized void clear() {
+        entryMap.clear();
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = null;
+        }
+    }
+
+    /**
+     * Advance the wheel to the time and wake the targets whose time has come.
+     * The targets are removed before they are woken, so the action can schedule them again.
+     *
+     * @param currentMillis the current time in milliseconds
+     * @param action        the action to wake the target
+     */
+    public void advance(long currentMillis, @NotNull Consumer<T> action) {
+        List<T> dueTargets = new ArrayList<>();
+        synchronized (this) {
+            long tick = currentMillis / tickMillis;
+            if (currentTick != Long.MIN_VALUE && tick <= currentTick) return;
+
+            if (currentTick == Long.MIN_VALUE || tick - currentTick >= wheel.length) {
+                for (int i = 0; i < wheel.length; i++) {
+                    collect(i, tick, dueTargets);
+                }
+            } else {
+                for (long t = currentTick + 1; t <= tick; t++) {
+                    collect((int) (t & wheelMask), tick, dueTargets);
+                }
+            }
+            currentTick = tick;
+        }
+        for (T target : dueTargets) {
+            action.accept(target);
+        }
+    }
+
+    private void collect(int index, long tick, List<T> dueTargets) {
+        Entry<T> entry = wheel[index];
+        while (entry != null) {
+            Entry<T> next = entry.next;
+            if (entry.tick <= tick) {
+                unlink(entry);
+                entryMap.remove(entry.target);
+                dueTargets.add(entry.target);
+            }
+            entry = next;
+        }
+    }
+
+    private void unlink(Entry<T> entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            int index = (int) (entry.tick & wheelMask);
+            if (wheel[index] == entry) {
+                wheel[index] = entry.next;
+            }
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static final class Entry<T> {
+        private final T target;
+        private final long tick;
+        private Entry<T> prev;
+        private Entry<T> next;
+
+        private Entry(T target, long tick) {
+            this.target = target;
+            this.tick = tick;
+        }
+    }
+}
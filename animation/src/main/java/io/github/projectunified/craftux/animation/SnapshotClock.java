@@ -0,0 +1,55 @@
+package io.github.projectunified.craftux.animation;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A clock that returns the time captured by the last {@link #snapshot()}.
+ * Call {@link #snapshot()} once per tick or render pass, so that all the animations in the pass read one cached timestamp.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * SnapshotClock clock = new SnapshotClock();
+ * animatedMask.setClock(clock);
+ * Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+ *     clock.snapshot();
+ *     ui.update();
+ * }, 0, 1);
+ * }</pre>
+ */
+public class SnapshotClock implements AnimationClock {
+    private final AnimationClock source;
+    private volatile long snapshotMillis;
+
+    /**
+     * Create a new clock
+     *
+     * @param source the clock to take the snapshots from
+     */
+    public SnapshotClock(@NotNull AnimationClock source) {
+        this.source = source;
+        this.snapshotMillis = source.currentMillis();
+    }
+
+    /**
+     * Create a new clock taking the snapshots from the system time
+     */
+    public SnapshotClock() {
+        this(AnimationClock.SYSTEM);
+    }
+
+    /**
+     * Capture the current time of the source clock
+     *
+     * @return the captured time in milliseconds
+     */
+    public long snapshot() {
+        long millis = source.currentMillis();
+        this.snapshotMillis = millis;
+        return millis;
+    }
+
+    @Override
+    public long currentMillis() {
+        return snapshotMillis;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.projectunified.craftux.animation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A clock driven by game ticks. The time only advances when {@link #tick()} is called,
+ * so the animations stay deterministic when the server lags.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * TickClock clock = new TickClock(); // 50 milliseconds per tick
+ * animatedButton.setClock(clock);
+ * animatedButton.setPeriodMillis(500); // Changes the frame every 10 ticks
+ * Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+ *     clock.tick();
+ *     ui.update();
+ * }, 0, 1);
+ * }</pre>
+ */
+public class TickClock implements AnimationClock {
+    private final AtomicLong tick = new AtomicLong();
+    private final long millisPerTick;
+
+    /**
+     * Create a new clock
+     *
+     * @param millisPerTick the amount of milliseconds in a tick
+     * @throws IllegalArgumentException if millisPerTick is not positive
+     */
+    public TickClock(long millisPerTick) {
+        if (millisPerTick <= 0) {
+            throw new IllegalArgumentException("Millis per tick must be positive");
+        }
+        this.millisPerTick = millisPerTick;
+    }
+
+    /**
+     * Create a new clock with 50 milliseconds per tick
+     */
+    public TickClock() {
+        this(50);
+    }
+
+    /**
+     * Advance the clock by one tick
+     *
+     * @return the current tick
+     */
+    public long tick() {
+        return tick.incrementAndGet();
+    }
+
+    /**
+     * Get the current tick
+     *
+     * @return the current tick
+     */
+    public long getTick() {
+        return tick.get();
+    }
+
+    @Override
+    public long currentMillis() {
+        return tick.get() * millisPerTick;
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.projectunified.craftux.animation;
+
+/**
+ * The way {@link AnimationTimeline} keeps the animation state of the unique ids
+ */
+public enum TimelineMode {
+    /**
+     * Every unique id has its own {@link Animation}, which starts when the unique id sees the animation for the first time
+     */
+    PER_VIEWER,
+    /**
+     * All the unique ids share one {@link Animation}, so they see the same frame at the same time.
+     * The frame is computed once per clock time and no state is kept for the unique ids
+     */
+    SYNCHRONIZED,
+    /**
+     * All the unique ids share one timeline, but every unique id keeps its own start time.
+     * Only the start time is stored for the unique ids
+     */
+    PHASE_OFFSET
+}
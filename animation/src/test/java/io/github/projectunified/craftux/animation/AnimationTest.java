@@ -0,0 +1,110 @@
+package io.github.projectunified.craftux.animation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnimationTest {
+    private static final AnimationClock FIXED_CLOCK = () -> 0;
+
+    private static String frames(Animation<String> animation, long stepMillis, long endMillis) {
+        StringBuilder builder = new StringBuilder();
+        for (long millis = 0; millis < endMillis; millis += stepMillis) {
+            builder.append(animation.getFrame(0, millis));
+        }
+        return builder.toString();
+    }
+
+    @Test
+    void locatesFramesByTheirDurations() {
+        Animation<String> animation = new Animation<>(Arrays.asList("A", "B", "C"), new long[]{100, 200, 300}, AnimationMode.REPEAT, FIXED_CLOCK);
+
+        assertEquals("A", animation.getFrame(0, 0));
+        assertEquals("A", animation.getFrame(0, 99));
+        assertEquals("B", animation.getFrame(0, 100));
+        assertEquals("B", animation.getFrame(0, 299));
+        assertEquals("C", animation.getFrame(0, 300));
+        assertEquals("C", animation.getFrame(0, 599));
+        assertEquals("A", animation.getFrame(0, 600));
+        assertEquals(600, animation.getCycleMillis());
+    }
+
+    @Test
+    void reportsTheNextFrameChange() {
+        Animation<String> animation = new Animation<>(Arrays.asList("A", "B", "C"), new long[]{100, 200, 300}, AnimationMode.REPEAT, FIXED_CLOCK);
+
+        assertEquals(100, animation.getNextFrameChangeMillis(0, 0));
+        assertEquals(300, animation.getNextFrameChangeMillis(0, 150));
+        assertEquals(600, animation.getNextFrameChangeMillis(0, 300));
+        assertEquals(700, animation.getNextFrameChangeMillis(0, 650));
+    }
+
+    @Test
+    void playsFramesBackwardInReverseMode() {
+        Animation<String> animation = new Animation<>(Arrays.asList("A", "B", "C"), 100, AnimationMode.REVERSE, FIXED_CLOCK);
+
+        assertEquals("CBACBA", frames(animation, 100, 600));
+    }
+
+    @Test
+    void keepsTheDurationOfEveryFrameInReverseMode() {
+        Animation<String> animation = new Animation<>(Arrays.asList("A", "B", "C"), new long[]{100, 200, 300}, AnimationMode.REVERSE, FIXED_CLOCK);
+
+        assertEquals("CCCBBACCCBBA", frames(animation, 100, 1200));
+    }
+
+    @Test
+    void bouncesWithoutRepeatingTheEndsInPingPongMode() {
+        Animation<String> animation = new Animation<>(Arrays.asList("A", "B", "C", "D"), 100, AnimationMode.PING_PONG, FIXED_CLOCK);
+
+        assertEquals("ABCDCBABCDCB", frames(animation, 100, 1200));
+    }
+
+    @Test
+    void keepsTheDurationOfEveryFrameInPingPongMode() {
+        Animation<String> animation = new Animation<>(Arrays.asList("A", "B", "C"), new long[]{100, 200, 300}, AnimationMode.PING_PONG, FIXED_CLOCK);
+
+        assertEquals("ABBCCCBBABBCCCBB", frames(animation, 100, 1600));
+        assertEquals(300, animation.getNextFrameChangeMillis(0, 150));
+        assertEquals(600, animation.getNextFrameChangeMillis(0, 300));
+        assertEquals(800, animation.getNextFrameChangeMillis(0, 600));
+    }
+
+    @Test
+    void stopsAfterTheFirstRunInOneTimeModes() {
+        List<String> frames = Arrays.asList("A", "B");
+        Animation<String> oneTime = new Animation<>(frames, 100, AnimationMode.ONE_TIME, FIXED_CLOCK);
+        Animation<String> keepLast = new Animation<>(frames, 100, AnimationMode.ONE_TIME_KEEP_LAST, FIXED_CLOCK);
+
+        assertEquals("B", oneTime.getFrame(0, 150));
+        assertNull(oneTime.getFrame(0, 250));
+        assertFalse(oneTime.isFirstRun(0, 250));
+        assertEquals("B", keepLast.getFrame(0, 250));
+    }
+
+    @Test
+    void showsFramesAddedLaterWithTheLastDuration() {
+        List<String> frames = new ArrayList<>(Arrays.asList("A", "B"));
+        Animation<String> animation = new Animation<>(frames, new long[]{100, 200}, AnimationMode.REPEAT, FIXED_CLOCK);
+        assertEquals("A", animation.getFrame(0, 300));
+
+        frames.add("C");
+
+        assertEquals("C", animation.getFrame(0, 300));
+        assertEquals("C", animation.getFrame(0, 499));
+        assertEquals("A", animation.getFrame(0, 500));
+        assertEquals(500, animation.getCycleMillis());
+    }
+
+    @Test
+    void rejectsInvalidDurations() {
+        List<String> frames = Arrays.asList("A", "B");
+        assertThrows(IllegalArgumentException.class, () -> new Animation<>(frames, new long[0], AnimationMode.REPEAT, FIXED_CLOCK));
+        assertThrows(IllegalArgumentException.class, () -> new Animation<>(frames, new long[]{100, 0}, AnimationMode.REPEAT, FIXED_CLOCK));
+        assertThrows(IllegalArgumentException.class, () -> new Animation<>(new ArrayList<String>(), 100, AnimationMode.REPEAT, FIXED_CLOCK));
+    }
+}
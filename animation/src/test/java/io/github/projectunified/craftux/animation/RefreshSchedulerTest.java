@@ -0,0 +1,106 @@
+package io.github.projectunified.craftux.animation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshSchedulerTest {
+    private static List<String> advance(RefreshScheduler<String> scheduler, long currentMillis) {
+        List<String> woken = new ArrayList<>();
+        scheduler.advance(currentMillis, woken::add);
+        Collections.sort(woken);
+        return woken;
+    }
+
+    @Test
+    void wakesTheTargetsWhenTheirTimeComes() {
+        RefreshScheduler<String> scheduler = new RefreshScheduler<>(50, 8);
+        scheduler.advance(0, target -> fail("Nothing is scheduled"));
+        scheduler.schedule("a", 100);
+        scheduler.schedule("b", 120); // Rounded up to the tick at 150
+
+        assertEquals(Collections.emptyList(), advance(scheduler, 50));
+        assertEquals(Collections.singletonList("a"), advance(scheduler, 100));
+        assertEquals(Collections.emptyList(), advance(scheduler, 140));
+        assertEquals(Collections.singletonList("b"), advance(scheduler, 150));
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void replacesAndCancelsTheScheduledTime() {
+        RefreshScheduler<String> scheduler = new RefreshScheduler<>(50, 8);
+        scheduler.advance(0, target -> {
+        });
+        scheduler.schedule("a", 100);
+        scheduler.schedule("a", 200);
+        scheduler.schedule("b", 100);
+        assertTrue(scheduler.cancel("b"));
+        assertFalse(scheduler.cancel("b"));
+        scheduler.schedule("c", 100);
+        scheduler.schedule("c", Animation.NEVER);
+
+        assertFalse(scheduler.isScheduled("c"));
+        assertEquals(Collections.emptyList(), advance(scheduler, 150));
+        assertEquals(Collections.singletonList("a"), advance(scheduler, 200));
+    }
+
+    @Test
+    void keepsTargetsScheduledBeyondOneTurnOfTheWheel() {
+        RefreshScheduler<String> scheduler = new RefreshScheduler<>(10, 4);
+        scheduler.advance(0, target -> {
+        });
+        scheduler.schedule("far", 100); // The same slot as the tick at 20, 60 and 100 millis
+
+        for (long millis = 10; millis < 100; millis += 10) {
+            assertEquals(Collections.emptyList(), advance(scheduler, millis), "at " + millis);
+        }
+        assertEquals(Collections.singletonList("far"), advance(scheduler, 100));
+    }
+
+    @Test
+    void wakesOverdueTargetsWhenTheWheelJumps() {
+        RefreshScheduler<String> scheduler = new RefreshScheduler<>(10, 4);
+        scheduler.advance(0, target -> {
+        });
+        scheduler.schedule("a", 20);
+        scheduler.schedule("b", 30);
+        scheduler.schedule("c", 500);
+
+        assertEquals(Arrays.asList("a", "b"), advance(scheduler, 200));
+        assertTrue(scheduler.isScheduled("c"));
+    }
+
+    @Test
+    void schedulesPastTimesOnTheNextTick() {
+        RefreshScheduler<String> scheduler = new RefreshScheduler<>(50, 8);
+        scheduler.advance(1000, target -> {
+        });
+        scheduler.schedule("late", 900);
+
+        assertEquals(Collections.emptyList(), advance(scheduler, 1000));
+        assertEquals(Collections.singletonList("late"), advance(scheduler, 1050));
+    }
+
+    @Test
+    void letsTheActionScheduleTheTargetAgain() {
+        RefreshScheduler<String> scheduler = new RefreshScheduler<>(50, 8);
+        scheduler.advance(0, target -> {
+        });
+        scheduler.schedule("a", 50);
+
+        scheduler.advance(50, target -> scheduler.schedule(target, 100));
+        assertTrue(scheduler.isScheduled("a"));
+        assertEquals(Collections.singletonList("a"), advance(scheduler, 100));
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new RefreshScheduler<String>(0, 8));
+        assertThrows(IllegalArgumentException.class, () -> new RefreshScheduler<String>(50, 0));
+    }
+}
@@ -1,14 +1,16 @@
 package io.github.projectunified.craftux.button;
 
 import io.github.projectunified.craftux.animation.Animation;
+import io.github.projectunified.craftux.animation.AnimationClock;
 import io.github.projectunified.craftux.animation.AnimationMode;
+import io.github.projectunified.craftux.animation.AnimationTimeline;
+import io.github.projectunified.craftux.animation.TimelineMode;
 import io.github.projectunified.craftux.common.ActionItem;
 import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.TimedElement;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A button that cycles through a list of buttons as animation frames over time.
@@ -22,12 +24,16 @@ import java.util.concurrent.ConcurrentHashMap;
  *     new SimpleButton(new ItemStack(Material.EMERALD))
  * );
  * animatedButton.setPeriodMillis(100); // 100ms per frame
+ * animatedButton.setTimelineMode(TimelineMode.SYNCHRONIZED); // All players see the same frame
  * }</pre>
  */
 public class AnimatedButton extends MultiButton {
-    private final Map<UUID, Animation<Button>> animationMap = new ConcurrentHashMap<>();
     private long periodMillis = 50L;
+    private long[] frameDurations = null;
     private AnimationMode mode = AnimationMode.REPEAT;
+    private AnimationClock clock = AnimationClock.SYSTEM;
+    private TimelineMode timelineMode = TimelineMode.PER_VIEWER;
+    private volatile AnimationTimeline<Button> timeline = null;
 
     /**
      * Sets the period of the animation between frame changes.
@@ -42,6 +48,29 @@ public class AnimatedButton extends MultiButton {
         this.periodMillis = periodMillis;
     }
 
+    /**
+     * Set the duration of every frame of the animation, overriding the period.
+     * The buttons added afterward reuse the last duration.
+     * The animation is restarted with the new durations.
+     *
+     * @param frameDurations the duration in milliseconds of every frame, or null to use the period for all the frames
+     * @throws IllegalArgumentException if the amount of durations doesn't match the amount of buttons, or any duration is not positive
+     */
+    public void setFrameDurations(long... frameDurations) {
+        if (frameDurations != null) {
+            if (frameDurations.length != this.buttons.size()) {
+                throw new IllegalArgumentException("The amount of durations must match the amount of buttons");
+            }
+            for (long duration : frameDurations) {
+                if (duration <= 0) {
+                    throw new IllegalArgumentException("Duration must be positive");
+                }
+            }
+        }
+        this.frameDurations = frameDurations == null ? null : frameDurations.clone();
+        this.timeline = null;
+    }
+
     /**
      * Set the mode of the animation
      *
@@ -51,31 +80,109 @@ public class AnimatedButton extends MultiButton {
         this.mode = mode;
     }
 
+    /**
+     * Set the clock of the animation.
+     * Share a {@link io.github.projectunified.craftux.animation.SnapshotClock} or a {@link io.github.projectunified.craftux.animation.TickClock}
+     * between the animated elements so that they read the same time in a render pass.
+     * The animation already started keeps its clock until it's stopped.
+     *
+     * @param clock the clock
+     */
+    public void setClock(@NotNull AnimationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Set the timeline mode of the animation.
+     * Use {@link TimelineMode#SYNCHRONIZED} or {@link TimelineMode#PHASE_OFFSET} to avoid keeping an animation for every unique id.
+     * The mode is applied when the animation is started again after it's stopped.
+     *
+     * @param timelineMode the timeline mode
+     */
+    public void setTimelineMode(@NotNull TimelineMode timelineMode) {
+        this.timelineMode = timelineMode;
+    }
+
     /**
      * Reset the animation for the unique id
      *
      * @param uuid the unique id
      */
     public void reset(UUID uuid) {
-        Animation<Button> animation = animationMap.get(uuid);
-        if (animation != null) {
-            animation.reset();
+        AnimationTimeline<Button> timeline = this.timeline;
+        if (timeline != null) {
+            timeline.reset(uuid);
         }
     }
 
-    private Animation<Button> getAnimation(UUID uuid) {
-        return animationMap.computeIfAbsent(uuid, key -> new Animation<>(buttons, periodMillis, mode));
+    private Animation<Button> createAnimation() {
+        long[] frameDurations = this.frameDurations;
+        if (frameDurations == null) {
+            return new Animation<>(buttons, periodMillis, mode, clock);
+        }
+        return new Animation<>(buttons, frameDurations, mode, clock);
+    }
+
+    private AnimationTimeline<Button> getTimeline() {
+        AnimationTimeline<Button> timeline = this.timeline;
+        if (timeline == null) {
+            synchronized (this) {
+                timeline = this.timeline;
+                if (timeline == null) {
+                    timeline = new AnimationTimeline<>(this::createAnimation, timelineMode, clock);
+                    this.timeline = timeline;
+                }
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * Pause the animation of the unique id and suspend the child elements
+     *
+     * @param uuid the unique id
+     */
+    @Override
+    public void suspend(UUID uuid) {
+        AnimationTimeline<Button> timeline = this.timeline;
+        if (timeline != null) {
+            timeline.pause(uuid, timeline.getClock().currentMillis());
+        }
+        super.suspend(uuid);
+    }
+
+    /**
+     * Resume the animation of the unique id from the frame it was paused at and resume the child elements
+     *
+     * @param uuid the unique id
+     */
+    @Override
+    public void resume(UUID uuid) {
+        AnimationTimeline<Button> timeline = this.timeline;
+        if (timeline != null) {
+            timeline.resume(uuid, timeline.getClock().currentMillis());
+        }
+        super.resume(uuid);
     }
 
     @Override
     public void stop() {
-        this.animationMap.clear();
+        this.timeline = null;
         super.stop();
     }
 
     @Override
     public boolean apply(@NotNull UUID uuid, @NotNull ActionItem actionItem) {
         if (this.buttons.isEmpty()) return false;
-        return getAnimation(uuid).getCurrentFrame().apply(uuid, actionItem);
+        return getTimeline().getCurrentFrame(uuid).apply(uuid, actionItem);
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        if (this.buttons.isEmpty()) return TimedElement.NEVER;
+        AnimationTimeline<Button> timeline = getTimeline();
+        long next = timeline.getNextFrameChangeMillis(uuid, currentMillis);
+        if (next <= currentMillis) return next;
+        return Math.min(next, TimedElement.getNextChangeMillis(timeline.getCurrentFrame(uuid, currentMillis), uuid, currentMillis));
     }
 }
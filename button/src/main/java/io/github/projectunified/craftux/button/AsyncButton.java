@@ -0,0 +1,320 @@
+package io.github.projectunified.craftux.button;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Element;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A button whose item is loaded asynchronously. A placeholder item is displayed while the item is loading.
+ * The unique ids are mapped to keys, and the unique ids with the same key share one load.
+ * The loaded items are kept until they expire or are invalidated, and the least recently used items are removed when the button holds too many.
+ * A failed load shows the failed item for the retry time, then it's loaded again on the next apply.
+ * The future returned by the item loader is never cancelled by this button, so it can be shared with other users (e.g. a cache).
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * AsyncButton<UUID> statsButton = new AsyncButton<>(
+ *     uuid -> uuid, // One load per player
+ *     uuid -> statsService.fetchStats(uuid).thenApply(stats -> createStatsItem(stats)),
+ *     event -> openStatsMenu(event)
+ * );
+ * statsButton.setPlaceholderItem(new ItemStack(Material.CLOCK));
+ * statsButton.setFailedItem(new ItemStack(Material.BARRIER));
+ * statsButton.setTtlMillis(60000); // Load the stats again after 1 minute
+ * statsButton.setRetryMillis(5000); // Retry a failed load after 5 seconds
+ * statsButton.setLoadListener(uuid -> uiMap.get(uuid).update()); // Render the loaded item
+ * }</pre>
+ *
+ * @param <K> the key type
+ */
+public class AsyncButton<K> implements Element, Button {
+    private final Function<UUID, K> keyFunction;
+    private final Function<K, CompletableFuture<?>> itemLoader;
+    private final Consumer<Object> consumer;
+    private final LinkedHashMap<K, Load> loadMap = new LinkedHashMap<>(16, 0.75f, true);
+    private @Nullable Object placeholderItem = null;
+    private @Nullable Object failedItem = null;
+    private @Nullable Consumer<UUID> loadListener = null;
+    private long ttlMillis = 0;
+    private long retryMillis = 5000;
+    private int maxSize = 1024;
+
+    /**
+     * Create a new button
+     *
+     * @param keyFunction the function to get the key of the unique id
+     * @param itemLoader  the function to load the item of the key
+     * @param consumer    the consumer
+     */
+    public AsyncButton(@NotNull Function<@NotNull UUID, @NotNull K> keyFunction, @NotNull Function<@NotNull K, @NotNull CompletableFuture<?>> itemLoader, @NotNull Consumer<@NotNull Object> consumer) {
+        this.keyFunction = keyFunction;
+        this.itemLoader = itemLoader;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Create a new button
+     *
+     * @param keyFunction the function to get the key of the unique id
+     * @param itemLoader  the function to load the item of the key
+     */
+    public AsyncButton(@NotNull Function<@NotNull UUID, @NotNull K> keyFunction, @NotNull Function<@NotNull K, @NotNull CompletableFuture<?>> itemLoader) {
+        this(keyFunction, itemLoader, event -> {
+        });
+    }
+
+    /**
+     * Set the item displayed while the item is loading
+     *
+     * @param placeholderItem the placeholder item
+     */
+    public void setPlaceholderItem(@Nullable Object placeholderItem) {
+        this.placeholderItem = placeholderItem;
+    }
+
+    /**
+     * Set the item displayed when the load of the item failed
+     *
+     * @param failedItem the failed item
+     */
+    public void setFailedItem(@Nullable Object failedItem) {
+        this.failedItem = failedItem;
+    }
+
+    /**
+     * Set the listener called with the unique ids that saw the placeholder item when their load completes, fails or is invalidated.
+     * Use this to update the GUI. Note that the listener is called on the thread that completes the load.
+     *
+     * @param loadListener the listener
+     */
+    public void setLoadListener(@Nullable Consumer<UUID> loadListener) {
+        this.loadListener = loadListener;
+    }
+
+    /**
+     * Set the time to live of the loaded items
+     *
+     * @param ttlMillis the time to live in milliseconds, or 0 to keep the items until they are invalidated
+     * @throws IllegalArgumentException if ttlMillis is negative
+     */
+    public void setTtlMillis(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("TTL cannot be negative");
+        }
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Set the time the failed item is displayed before the item is loaded again
+     *
+     * @param retryMillis the retry time in milliseconds, or 0 to load the item again on the next apply
+     * @throws IllegalArgumentException if retryMillis is negative
+     */
+    public void setRetryMillis(long retryMillis) {
+        if (retryMillis < 0) {
+            throw new IllegalArgumentException("Retry time cannot be negative");
+        }
+        this.retryMillis = retryMillis;
+    }
+
+    /**
+     * Set the maximum amount of kept loads
+     *
+     * @param maxSize the maximum amount
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    public void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        List<Load> evictedLoads;
+        synchronized (loadMap) {
+            this.maxSize = maxSize;
+            evictedLoads = evict();
+        }
+        evictedLoads.forEach(this::discard);
+    }
+
+    /**
+     * Invalidate the item of the key, so it's loaded again on the next apply.
+     * The load in progress is discarded, and its result is ignored even if it completes.
+     *
+     * @param key the key
+     */
+    public void invalidate(@NotNull K key) {
+        Load load;
+        synchronized (loadMap) {
+            load = loadMap.remove(key);
+        }
+        if (load != null) {
+            discard(load);
+        }
+    }
+
+    /**
+     * Invalidate all the items
+     */
+    public void invalidateAll() {
+        List<Load> loads;
+        synchronized (loadMap) {
+            loads = new ArrayList<>(loadMap.values());
+            loadMap.clear();
+        }
+        loads.forEach(this::discard);
+    }
+
+    private List<Load> evict() {
+        List<Load> evictedLoads = new ArrayList<>();
+        Iterator<Load> iterator = loadMap.values().iterator();
+        while (loadMap.size() > maxSize && iterator.hasNext()) {
+            evictedLoads.add(iterator.next());
+            iterator.remove();
+        }
+        return evictedLoads;
+    }
+
+    private void discard(Load load) {
+        load.future.cancel(false);
+        Consumer<UUID> listener = this.loadListener;
+        if (listener != null) {
+            load.waitingUuids.forEach(listener);
+        }
+        load.waitingUuids.clear();
+    }
+
+    /**
+     * Check if the item of the key is loaded
+     *
+     * @param key the key
+     * @return true if it is
+     */
+    public boolean isLoaded(@NotNull K key) {
+        Load load;
+        synchronized (loadMap) {
+            load = loadMap.get(key);
+        }
+        return load != null && isSuccessful(load.future);
+    }
+
+    /**
+     * Check if the load of the item of the key failed
+     *
+     * @param key the key
+     * @return true if it did
+     */
+    public boolean isFailed(@NotNull K key) {
+        Load load;
+        synchronized (loadMap) {
+            load = loadMap.get(key);
+        }
+        return load != null && load.future.isCompletedExceptionally();
+    }
+
+    private static boolean isSuccessful(CompletableFuture<?> future) {
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    private boolean isExpired(Load load, long currentMillis) {
+        long completeMillis = load.completeMillis;
+        if (completeMillis < 0) return false;
+        if (load.future.isCompletedExceptionally()) {
+            return currentMillis - completeMillis >= retryMillis;
+        }
+        return ttlMillis > 0 && currentMillis - completeMillis >= ttlMillis;
+    }
+
+    private Load getLoad(K key) {
+        long currentMillis = System.currentTimeMillis();
+        Load load;
+        List<Load> evictedLoads = null;
+        synchronized (loadMap) {
+            load = loadMap.get(key);
+            if (load == null || isExpired(load, currentMillis)) {
+                // The future of the loader is wrapped, so cancelling the load doesn't cancel a future shared with other users
+                load = new Load(itemLoader.apply(key).thenApply(Function.identity()));
+                loadMap.put(key, load);
+                evictedLoads = evict();
+            }
+        }
+        if (evictedLoads != null) {
+            evictedLoads.forEach(this::discard);
+        }
+
+        if (load.listening.compareAndSet(false, true)) {
+            Load listeningLoad = load;
+            listeningLoad.future.whenComplete((item, throwable) -> {
+                listeningLoad.completeMillis = System.currentTimeMillis();
+                synchronized (loadMap) {
+                    if (loadMap.get(key) != listeningLoad) return; // Invalidated, so the result is outdated
+                }
+                Consumer<UUID> listener = this.loadListener;
+                if (listener != null) {
+                    listeningLoad.waitingUuids.forEach(listener);
+                }
+                listeningLoad.waitingUuids.clear();
+            });
+        }
+        return load;
+    }
+
+    @Override
+    public boolean apply(@NotNull UUID uuid, @NotNull ActionItem actionItem) {
+        Load load = getLoad(keyFunction.apply(uuid));
+        CompletableFuture<?> future = load.future;
+        if (isSuccessful(future)) {
+            actionItem.setItem(future.join());
+        } else if (future.isDone()) {
+            actionItem.setItem(failedItem);
+        } else {
+            load.waitingUuids.add(uuid);
+            if (future.isDone() && load.waitingUuids.remove(uuid)) {
+                // The load completed while the unique id was being added
+                Consumer<UUID> listener = this.loadListener;
+                if (listener != null) {
+                    listener.accept(uuid);
+                }
+            }
+            actionItem.setItem(placeholderItem);
+        }
+        actionItem.setAction(consumer);
+        return true;
+    }
+
+    /**
+     * Discards the pending loads and clears the loaded items
+     */
+    @Override
+    public void stop() {
+        List<Load> loads;
+        synchronized (loadMap) {
+            loads = new ArrayList<>(loadMap.values());
+            loadMap.clear();
+        }
+        loads.forEach(load -> load.future.cancel(false));
+    }
+
+    private static final class Load {
+        private final CompletableFuture<?> future;
+        private final Set<UUID> waitingUuids = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean listening = new AtomicBoolean(false);
+        private volatile long completeMillis = -1;
+
+        private Load(CompletableFuture<?> future) {
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package io.github.projectunified.craftux.button;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.ActionItemSnapshot;
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Element;
+import io.github.projectunified.craftux.common.TimedElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A button that guards a slow or failing child button with a circuit breaker.
+ * The render latency and the failure rate of the child button are tracked as moving averages.
+ * When either goes over its threshold, the breaker opens and the button serves the last good item of the unique id,
+ * or the fallback button if there is none, without calling the child button.
+ * After the cooldown, the child button is tried again once, and the breaker closes if it renders within the budget.
+ * The last good items are kept per unique id until the unique id is suspended.
+ * Note that the child button is rendered on a new action item, so that its result can be served again while the breaker is open.
+ * A child button extending the existing item or action (e.g. with {@link ActionItem#extendItem}) doesn't see the item of the default button.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * GuardedButton guardedButton = new GuardedButton(new SimpleButton(uuid -> createBalanceItem(economy.getBalance(uuid))));
+ * guardedButton.setLatencyBudget(Duration.ofMillis(2));
+ * guardedButton.setCooldown(Duration.ofSeconds(10));
+ * guardedButton.setFallbackButton(new SimpleButton(new ItemStack(Material.BARRIER)));
+ * }</pre>
+ */
+public class GuardedButton implements Element, Button, TimedElement {
+    private static final double SMOOTHING_FACTOR = 0.2;
+    private final Button button;
+    private final Map<UUID, ActionItemSnapshot> lastGoodMap = new ConcurrentHashMap<>();
+    private @Nullable Button fallbackButton = null;
+    private long latencyBudgetNanos = Duration.ofMillis(5).toNanos();
+    private double failureRateThreshold = 0.5;
+    private long cooldownNanos = Duration.ofSeconds(5).toNanos();
+    private volatile State state = State.CLOSED;
+    private volatile long openedNanos = 0;
+    private double averageLatencyNanos = 0;
+    private double failureRate = 0;
+
+    /**
+     * Create a new button
+     *
+     * @param button the child button
+     */
+    public GuardedButton(@NotNull Button button) {
+        this.button = button;
+    }
+
+    /**
+     * Get the child button
+     *
+     * @return the child button
+     */
+    @NotNull
+    public Button getButton() {
+        return button;
+    }
+
+    /**
+     * Set the button used when the breaker is open and there is no last good item of the unique id
+     *
+     * @param fallbackButton the fallback button
+     */
+    public void setFallbackButton(@Nullable Button fallbackButton) {
+        this.fallbackButton = fallbackButton;
+    }
+
+    /**
+     * Set the budget of the average render latency
+     *
+     * @param latencyBudget the latency budget
+     * @throws IllegalArgumentException if the latency budget is not positive
+     */
+    public void setLatencyBudget(@NotNull Duration latencyBudget) {
+        if (latencyBudget.isNegative() || latencyBudget.isZero()) {
+            throw new IllegalArgumentException("Latency budget must be positive");
+        }
+        this.latencyBudgetNanos = latencyBudget.toNanos();
+    }
+
+    /**
+     * Set the threshold of the average failure rate
+     *
+     * @param failureRateThreshold the threshold, between 0 (exclusive) and 1 (inclusive)
+     * @throws IllegalArgumentException if the threshold is out of range
+     */
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    /**
+     * Set the time the breaker stays open before the child button is tried again
+     *
+     * @param cooldown the cooldown
+     * @throws IllegalArgumentException if the cooldown is negative
+     */
+    public void setCooldown(@NotNull Duration cooldown) {
+        if (cooldown.isNegative()) {
+            throw new IllegalArgumentException("Cooldown cannot be negative");
+        }
+        this.cooldownNanos = cooldown.toNanos();
+    }
+
+    /**
+     * Get the state of the breaker
+     *
+     * @return the state
+     */
+    @NotNull
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Get the moving average of the render latency
+     *
+     * @return the average latency in nanoseconds
+     */
+    public synchronized double getAverageLatencyNanos() {
+        return averageLatencyNanos;
+    }
+
+    /**
+     * Get the moving average of the failure rate
+     *
+     * @return the failure rate, between 0 and 1
+     */
+    public synchronized double getFailureRate() {
+        return failureRate;
+    }
+
+    /**
+     * Close the breaker and clear the recorded latency and failure rate
+     */
+    public synchronized void reset() {
+        averageLatencyNanos = 0;
+        failureRate = 0;
+        state = State.CLOSED;
+    }
+
+    private synchronized boolean tryStartTrial() {
+        if (state != State.OPEN || System.nanoTime() - openedNanos < cooldownNanos) return false;
+        state = State.HALF_OPEN;
+        return true;
+    }
+
+    private synchronized void record(long latencyNanos, boolean failed, boolean trial) {
+        if (trial && state == State.HALF_OPEN) {
+            if (failed || latencyNanos > latencyBudgetNanos) {
+                openedNanos = System.nanoTime();
+                state = State.OPEN;
+            } else {
+                averageLatencyNanos = latencyNanos;
+                failureRate = 0;
+                state = State.CLOSED;
+            }
+            return;
+        }
+
+        averageLatencyNanos += SMOOTHING_FACTOR * (latencyNanos - averageLatencyNanos);
+        failureRate += SMOOTHING_FACTOR * ((failed ? 1 : 0) - failureRate);
+        if (state == State.CLOSED && (averageLatencyNanos > latencyBudgetNanos || failureRate >= failureRateThreshold)) {
+            openedNanos = System.nanoTime();
+            state = State.OPEN;
+        }
+    }
+
+    private boolean applyFallback(UUID uuid, ActionItem actionItem) {
+        ActionItemSnapshot lastGood = lastGoodMap.get(uuid);
+        if (lastGood != null) {
+            return lastGood.applyTo(actionItem);
+        }
+        Button fallback = this.fallbackButton;
+        return fallback != null && fallback.apply(uuid, actionItem);
+    }
+
+    @Override
+    public boolean apply(@NotNull UUID uuid, @NotNull ActionItem actionItem) {
+        boolean trial = false;
+        if (state != State.CLOSED) {
+            trial = tryStartTrial();
+            if (!trial && state != State.CLOSED) {
+                return applyFallback(uuid, actionItem);
+            }
+        }
+
+        ActionItemSnapshot rendered = null;
+        boolean failed = true;
+        long startNanos = System.nanoTime();
+        try {
+            rendered = ActionItemSnapshot.of(button, uuid);
+            failed = false;
+        } catch (RuntimeException e) {
+            // Recorded as a failure below
+        } finally {
+            record(System.nanoTime() - startNanos, failed, trial);
+        }
+        if (rendered == null) {
+            return applyFallback(uuid, actionItem);
+        }
+
+        lastGoodMap.put(uuid, rendered);
+        return rendered.applyTo(actionItem);
+    }
+
+    /**
+     * Get the next change time of the child button, or of the fallback button and the end of the cooldown if the breaker is open
+     *
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     * @return the next change time in milliseconds
+     */
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        if (state == State.CLOSED) {
+            return TimedElement.getNextChangeMillis(button, uuid, currentMillis);
+        }
+        long remainingMillis = Math.max(0, (cooldownNanos - (System.nanoTime() - openedNanos)) / 1_000_000);
+        long next = currentMillis + remainingMillis;
+        if (!lastGoodMap.containsKey(uuid)) {
+            next = Math.min(next, TimedElement.getNextChangeMillis(fallbackButton, uuid, currentMillis));
+        }
+        return next;
+    }
+
+    @Override
+    public void init() {
+        Element.handleIfElement(button, Element::init);
+        Element.handleIfElement(fallbackButton, Element::init);
+    }
+
+    @Override
+    public CompletableFuture<Void> initAsync() {
+        return CompletableFuture.allOf(Element.initAsyncIfElement(button), Element.initAsyncIfElement(fallbackButton));
+    }
+
+    @Override
+    public void stop() {
+        lastGoodMap.clear();
+        reset();
+        Element.handleIfElement(button, Element::stop);
+        Element.handleIfElement(fallbackButton, Element::stop);
+    }
+
+    @Override
+    public void suspend(UUID uuid) {
+        lastGoodMap.remove(uuid);
+        Element.handleIfElement(button, element -> element.suspend(uuid));
+        Element.handleIfElement(fallbackButton, element -> element.suspend(uuid));
+    }
+
+    @Override
+    public void resume(UUID uuid) {
+        Element.handleIfElement(button, element -> element.resume(uuid));
+        Element.handleIfElement(fallbackButton, element -> element.resume(uuid));
+    }
+
+    /**
+     * The state of the breaker
+     */
+    public enum State {
+        /**
+         * The child button is rendered normally
+         */
+        CLOSED,
+        /**
+         * The child button is skipped and the last good item or the fallback button is served
+         */
+        OPEN,
+        /**
+         * The child button is tried once to check if it recovered
+         */
+        HALF_OPEN
+    }
+}
@@ -2,9 +2,11 @@ package io.github.projectunified.craftux.button;
 
 import io.github.projectunified.craftux.common.Button;
 import io.github.projectunified.craftux.common.Element;
+import io.github.projectunified.craftux.common.TimedElement;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A base class for buttons that manage multiple child buttons.
@@ -20,7 +22,7 @@ import java.util.*;
  * List<Button> buttons = multiButton.getButtons();
  * }</pre>
  */
-public abstract class MultiButton implements Element, Button {
+public abstract class MultiButton implements Element, Button, TimedElement {
     protected final List<Button> buttons = new ArrayList<>();
 
     /**
@@ -56,8 +58,28 @@ public abstract class MultiButton implements Element, Button {
         Element.handleIfElement(this.buttons, Element::init);
     }
 
+    @Override
+    public CompletableFuture<Void> initAsync() {
+        return Element.initAsyncIfElement(this.buttons);
+    }
+
     @Override
     public void stop() {
         Element.handleIfElement(this.buttons, Element::stop);
     }
+
+    @Override
+    public void suspend(UUID uuid) {
+        Element.handleIfElement(this.buttons, element -> element.suspend(uuid));
+    }
+
+    @Override
+    public void resume(UUID uuid) {
+        Element.handleIfElement(this.buttons, element -> element.resume(uuid));
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        return TimedElement.getNextChangeMillis(this.buttons, uuid, currentMillis);
+    }
 }
@@ -3,10 +3,12 @@ package io.github.projectunified.craftux.button;
 import io.github.projectunified.craftux.common.ActionItem;
 import io.github.projectunified.craftux.common.Button;
 import io.github.projectunified.craftux.common.Element;
+import io.github.projectunified.craftux.common.TimedElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 /**
@@ -21,7 +23,7 @@ import java.util.function.Predicate;
  * predicateButton.setViewPredicate(uuid -> isAdmin(uuid)); // Check if player is admin
  * }</pre>
  */
-public class PredicateButton implements Element, Button {
+public class PredicateButton implements Element, Button, TimedElement {
     private @Nullable Button button = null;
     private @Nullable Button fallbackButton = null;
     private @Nullable Predicate<UUID> viewPredicate = null;
@@ -92,9 +94,32 @@ public class PredicateButton implements Element, Button {
         Element.handleIfElement(fallbackButton, Element::init);
     }
 
+    @Override
+    public CompletableFuture<Void> initAsync() {
+        return CompletableFuture.allOf(Element.initAsyncIfElement(button), Element.initAsyncIfElement(fallbackButton));
+    }
+
     @Override
     public void stop() {
         Element.handleIfElement(button, Element::stop);
         Element.handleIfElement(fallbackButton, Element::stop);
     }
+
+    @Override
+    public void suspend(UUID uuid) {
+        Element.handleIfElement(button, element -> element.suspend(uuid));
+        Element.handleIfElement(fallbackButton, element -> element.suspend(uuid));
+    }
+
+    @Override
+    public void resume(UUID uuid) {
+        Element.handleIfElement(button, element -> element.resume(uuid));
+        Element.handleIfElement(fallbackButton, element -> element.resume(uuid));
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        Button buttonToUse = viewPredicate == null || viewPredicate.test(uuid) ? button : fallbackButton;
+        return TimedElement.getNextChangeMillis(buttonToUse, uuid, currentMillis);
+    }
 }
@@ -0,0 +1,140 @@
+package io.github.projectunified.craftux.button;
+
+import io.github.projectunified.craftux.animation.AnimationClock;
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.ActionItemSnapshot;
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Element;
+import io.github.projectunified.craftux.common.TimedElement;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A button that only renders its child button once per time bucket.
+ * The buckets are aligned to the epoch of the clock, so the rendered item is reused until the next bucket starts.
+ * Useful for countdown, cooldown and clock buttons whose item only changes every second or every minute.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * TimeBucketButton countdownButton = new TimeBucketButton(1000, new SimpleButton(
+ *     uuid -> createCountdownItem(getRemainingSeconds(uuid))
+ * ));
+ * long next = countdownButton.getNextChangeMillis(playerUUID, System.currentTimeMillis()); // The start of the next second
+ * }</pre>
+ */
+public class TimeBucketButton implements Element, Button, TimedElement {
+    private final long bucketMillis;
+    private final Button button;
+    private final Map<UUID, RenderedBucket> renderedMap = new ConcurrentHashMap<>();
+    private AnimationClock clock = AnimationClock.SYSTEM;
+
+    /**
+     * Create a new button
+     *
+     * @param bucketMillis the size of the bucket in milliseconds
+     * @param button       the child button
+     * @throws IllegalArgumentException if bucketMillis is not positive
+     */
+    public TimeBucketButton(long bucketMillis, @NotNull Button button) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("Bucket size must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        this.button = button;
+    }
+
+    /**
+     * Get the size of the bucket
+     *
+     * @return the size of the bucket in milliseconds
+     */
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * Get the child button
+     *
+     * @return the child button
+     */
+    @NotNull
+    public Button getButton() {
+        return button;
+    }
+
+    /**
+     * Set the clock to read the current time from
+     *
+     * @param clock the clock
+     */
+    public void setClock(@NotNull AnimationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Invalidate the rendered item of the unique id, so the child button is rendered again on the next apply
+     *
+     * @param uuid the unique id
+     */
+    public void invalidate(@NotNull UUID uuid) {
+        renderedMap.remove(uuid);
+    }
+
+    @Override
+    public boolean apply(@NotNull UUID uuid, @NotNull ActionItem actionItem) {
+        long bucket = Math.floorDiv(clock.currentMillis(), bucketMillis);
+        RenderedBucket rendered = renderedMap.get(uuid);
+        if (rendered == null || rendered.bucket != bucket) {
+            rendered = new RenderedBucket(bucket, ActionItemSnapshot.of(button, uuid));
+            renderedMap.put(uuid, rendered);
+        }
+        return rendered.snapshot.applyTo(actionItem);
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        RenderedBucket rendered = renderedMap.get(uuid);
+        if (rendered == null) return currentMillis;
+        return (Math.floorDiv(currentMillis, bucketMillis) + 1) * bucketMillis;
+    }
+
+    @Override
+    public void init() {
+        Element.handleIfElement(button, Element::init);
+    }
+
+    @Override
+    public CompletableFuture<Void> initAsync() {
+        return Element.initAsyncIfElement(button);
+    }
+
+    @Override
+    public void stop() {
+        renderedMap.clear();
+        Element.handleIfElement(button, Element::stop);
+    }
+
+    @Override
+    public void suspend(UUID uuid) {
+        Element.handleIfElement(button, element -> element.suspend(uuid));
+    }
+
+    @Override
+    public void resume(UUID uuid) {
+        Element.handleIfElement(button, element -> element.resume(uuid));
+    }
+
+    private static final class RenderedBucket {
+        private final long bucket;
+        private final ActionItemSnapshot snapshot;
+
+        private RenderedBucket(long bucket, ActionItemSnapshot snapshot) {
+            this.bucket = bucket;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.projectunified.craftux.button;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncButtonTest {
+    private static final UUID VIEWER = UUID.randomUUID();
+
+    private static Object render(AsyncButton<UUID> button, UUID uuid) {
+        ActionItem actionItem = new ActionItem();
+        button.apply(uuid, actionItem);
+        return actionItem.getItem();
+    }
+
+    @Test
+    void showsThePlaceholderUntilTheItemIsLoaded() {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        List<UUID> notified = new ArrayList<>();
+        AsyncButton<UUID> button = new AsyncButton<>(Function.identity(), key -> future);
+        button.setPlaceholderItem("loading");
+        button.setLoadListener(notified::add);
+
+        assertEquals("loading", render(button, VIEWER));
+        future.complete("item");
+        assertEquals("item", render(button, VIEWER));
+        assertEquals(1, notified.size());
+    }
+
+    @Test
+    void retriesAFailedLoadAfterTheRetryTime() throws InterruptedException {
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        AsyncButton<UUID> button = new AsyncButton<>(Function.identity(), key -> {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        });
+        button.setFailedItem("failed");
+        button.setRetryMillis(20);
+
+        render(button, VIEWER);
+        futures.get(0).completeExceptionally(new IllegalStateException());
+        assertEquals("failed", render(button, VIEWER));
+        assertTrue(button.isFailed(VIEWER));
+        assertEquals(1, futures.size());
+
+        Thread.sleep(40);
+        render(button, VIEWER);
+        assertEquals(2, futures.size());
+        futures.get(1).complete("item");
+        assertEquals("item", render(button, VIEWER));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedLoads() {
+        List<UUID> loaded = new ArrayList<>();
+        AsyncButton<UUID> button = new AsyncButton<>(Function.identity(), key -> {
+            loaded.add(key);
+            return CompletableFuture.completedFuture("item");
+        });
+        button.setMaxSize(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        render(button, first);
+        render(button, second);
+        render(button, first);
+        render(button, third);
+
+        assertTrue(button.isLoaded(first));
+        assertFalse(button.isLoaded(second));
+        assertTrue(button.isLoaded(third));
+        assertEquals(3, loaded.size());
+    }
+
+    @Test
+    void neverCancelsTheFutureOfTheLoader() {
+        CompletableFuture<Object> shared = new CompletableFuture<>();
+        AsyncButton<UUID> button = new AsyncButton<>(Function.identity(), key -> shared);
+
+        render(button, VIEWER);
+        button.invalidate(VIEWER);
+        render(button, VIEWER);
+        button.stop();
+
+        assertFalse(shared.isCancelled());
+    }
+}
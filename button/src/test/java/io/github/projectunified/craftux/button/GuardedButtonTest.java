@@ -0,0 +1,84 @@
+package io.github.projectunified.craftux.button;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Button;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuardedButtonTest {
+    private static final UUID VIEWER = UUID.randomUUID();
+
+    private static Object render(Button button) {
+        ActionItem actionItem = new ActionItem();
+        button.apply(VIEWER, actionItem);
+        return actionItem.getItem();
+    }
+
+    @Test
+    void servesTheLastGoodItemWhileOpen() {
+        AtomicBoolean failing = new AtomicBoolean(false);
+        GuardedButton button = new GuardedButton((uuid, actionItem) -> {
+            if (failing.get()) throw new IllegalStateException();
+            actionItem.setItem("good");
+            return true;
+        });
+        button.setCooldown(Duration.ofHours(1));
+
+        assertEquals("good", render(button));
+        failing.set(true);
+        for (int i = 0; i < 10 && button.getState() == GuardedButton.State.CLOSED; i++) {
+            render(button);
+        }
+
+        assertEquals(GuardedButton.State.OPEN, button.getState());
+        assertEquals("good", render(button));
+    }
+
+    @Test
+    void dropsTheLastGoodItemOnSuspend() {
+        GuardedButton button = new GuardedButton((uuid, actionItem) -> {
+            throw new IllegalStateException();
+        });
+        button.setFallbackButton((uuid, actionItem) -> {
+            actionItem.setItem("fallback");
+            return true;
+        });
+
+        assertEquals("fallback", render(button));
+        button.suspend(VIEWER);
+        assertEquals("fallback", render(button));
+    }
+
+    @Test
+    void resetDuringTheTrialIsNotOverwritten() {
+        AtomicReference<GuardedButton> reference = new AtomicReference<>();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        AtomicBoolean resetInTrial = new AtomicBoolean(false);
+        GuardedButton button = new GuardedButton((uuid, actionItem) -> {
+            if (resetInTrial.get()) {
+                reference.get().reset();
+            }
+            if (failing.get()) throw new IllegalStateException();
+            return true;
+        });
+        reference.set(button);
+        button.setCooldown(Duration.ZERO);
+
+        for (int i = 0; i < 10 && button.getState() == GuardedButton.State.CLOSED; i++) {
+            render(button);
+        }
+        assertEquals(GuardedButton.State.OPEN, button.getState());
+
+        resetInTrial.set(true);
+        failing.set(false);
+        render(button);
+
+        assertEquals(GuardedButton.State.CLOSED, button.getState());
+    }
+}
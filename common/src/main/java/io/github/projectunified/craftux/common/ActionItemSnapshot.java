@@ -0,0 +1,124 @@
+package io.github.projectunified.craftux.common;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * An immutable snapshot of the item and the action rendered by a button.
+ * Use this to keep a rendered item and apply it again later without rendering the button again.
+ * Like {@link ActionItem#apply(ActionItem)}, applying the snapshot only sets the non-null fields,
+ * so the item and the action already on the action item are kept when the snapshot has none.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * ActionItemSnapshot snapshot = ActionItemSnapshot.of(expensiveButton, playerUUID);
+ * ActionItem actionItem = new ActionItem();
+ * snapshot.applyTo(actionItem); // Same item and action, without rendering the button again
+ * }</pre>
+ */
+public final class ActionItemSnapshot implements Consumer<ActionItem> {
+    private final boolean applied;
+    private final @Nullable Object item;
+    private final @Nullable Consumer<Object> action;
+
+    private ActionItemSnapshot(boolean applied, @Nullable Object item, @Nullable Consumer<Object> action) {
+        this.applied = applied;
+        this.item = item;
+        this.action = action;
+    }
+
+    /**
+     * Take a snapshot of the action item
+     *
+     * @param actionItem the action item
+     * @return the snapshot
+     */
+    public static @NotNull ActionItemSnapshot of(@NotNull ActionItem actionItem) {
+        return new ActionItemSnapshot(true, actionItem.getItem(), actionItem.getAction());
+    }
+
+    /**
+     * Render the button for the unique id and take a snapshot of the result
+     *
+     * @param button the button
+     * @param uuid   the unique id
+     * @return the snapshot
+     */
+    public static @NotNull ActionItemSnapshot of(@NotNull Button button, @NotNull UUID uuid) {
+        ActionItem actionItem = new ActionItem();
+        boolean applied = button.apply(uuid, actionItem);
+        return new ActionItemSnapshot(applied, actionItem.getItem(), actionItem.getAction());
+    }
+
+    /**
+     * Check if the button applied any action when the snapshot was taken
+     *
+     * @return true if it did
+     */
+    public boolean isApplied() {
+        return applied;
+    }
+
+    /**
+     * Get the item
+     *
+     * @return the item
+     */
+    public @Nullable Object getItem() {
+        return item;
+    }
+
+    /**
+     * Get the action
+     *
+     * @return the action
+     */
+    public @Nullable Consumer<Object> getAction() {
+        return action;
+    }
+
+    /**
+     * Apply the non-null fields of the snapshot to the action item
+     *
+     * @param actionItem the action item
+     * @return the value returned by the button when the snapshot was taken
+     */
+    public boolean applyTo(@NotNull ActionItem actionItem) {
+        if (!applied) return false;
+        if (item != null) {
+            actionItem.setItem(item);
+        }
+        if (action != null) {
+            actionItem.setAction(action);
+        }
+        return true;
+    }
+
+    @Override
+    public void accept(@NotNull ActionItem actionItem) {
+        applyTo(actionItem);
+    }
+
+    /**
+     * Check if the other object is a snapshot with an equal item and the same action instance
+     *
+     * @param o the other object
+     * @return true if it is
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ActionItemSnapshot)) return false;
+        ActionItemSnapshot that = (ActionItemSnapshot) o;
+        return applied == that.applied && Objects.equals(item, that.item) && action == that.action;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(applied, item, System.identityHashCode(action));
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.projectunified.craftux.common;
 
 import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -45,15 +47,77 @@ public interface Element {
         collection.forEach(o -> handleIfElement(o, elementConsumer));
     }
 
+    /**
+     * Initialize the object asynchronously if it is an instance of {@link Element}
+     *
+     * @param o the object
+     * @return the future that completes when the object is initialized
+     */
+    static CompletableFuture<Void> initAsyncIfElement(Object o) {
+        if (o instanceof Element) {
+            return ((Element) o).initAsync();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Loop through the collection and initialize the element asynchronously if it is an instance of {@link Element}.
+     * Cancelling the returned future also cancels the futures of the elements.
+     *
+     * @param collection the collection
+     * @return the future that completes when all the elements are initialized
+     */
+    static <T> CompletableFuture<Void> initAsyncIfElement(Collection<T> collection) {
+        CompletableFuture<?>[] futures = collection.stream().map(Element::initAsyncIfElement).toArray(CompletableFuture<?>[]::new);
+        CompletableFuture<Void> future = CompletableFuture.allOf(futures);
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                for (CompletableFuture<?> elementFuture : futures) {
+                    elementFuture.cancel(false);
+                }
+            }
+        });
+        return future;
+    }
+
     /**
      * Initialize the element. Should be called before adding to the GUI.
      */
     default void init() {
     }
 
+    /**
+     * Initialize the element asynchronously. Should be called before adding to the GUI.
+     * Override this if the element needs to preload data without blocking the calling thread.
+     * By default, it calls {@link #init()} on the calling thread, so it blocks until the element is initialized, and returns a completed future.
+     *
+     * @return the future that completes when the element is ready
+     */
+    default CompletableFuture<Void> initAsync() {
+        init();
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Stop the element. Should be called after removing from the GUI.
      */
     default void stop() {
     }
+
+    /**
+     * Suspend the element for the unique id. Called when the unique id stops viewing the GUI.
+     * Override this to pause the animations or cancel the pending work of the unique id.
+     *
+     * @param uuid the unique id
+     */
+    default void suspend(UUID uuid) {
+    }
+
+    /**
+     * Resume the element for the unique id. Called when the unique id views the GUI again after it's suspended.
+     *
+     * @param uuid the unique id
+     */
+    default void resume(UUID uuid) {
+    }
 }
@@ -0,0 +1,174 @@
+package io.github.projectunified.craftux.common;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The grid layout of an inventory, mapping the positions to the slots and back.
+ * The slot of every cell of the grid and the position of every slot are precomputed into tables,
+ * so a conversion is an array lookup, and the positions outside the grid are mapped to no slot,
+ * so they can be dropped before any button is rendered.
+ * The last row can be partial, so only the cells that have a slot are valid.
+ * Inventories that are not grids are laid out as a single row.
+ * The layouts are immutable and shared between the inventories of the same shape.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * InventoryLayout layout = InventoryLayout.grid(9, 6); // A double chest
+ * int slot = layout.toSlot(Position.of(8, 5)); // 53
+ * int outside = layout.toSlot(Position.of(9, 0)); // -1
+ * Position position = layout.toPosition(10); // (1, 1)
+ *
+ * InventoryLayout hopper = InventoryLayout.of(3, 5); // 3 slots per row, 5 slots
+ * boolean valid = hopper.contains(Position.of(2, 1)); // false, the second row only has 2 slots
+ * }</pre>
+ */
+public final class InventoryLayout {
+    private static final Map<Long, InventoryLayout> LAYOUTS = new ConcurrentHashMap<>();
+    private final int width;
+    private final int height;
+    private final int[] slots;
+    private final Position[] positions;
+
+    private InventoryLayout(int width, int size) {
+        this.width = width;
+        this.height = (size + width - 1) / width;
+        this.slots = new int[width * height];
+        this.positions = new Position[size];
+        Arrays.fill(slots, -1);
+        for (int slot = 0; slot < size; slot++) {
+            slots[slot] = slot;
+            positions[slot] = Position.of(slot % width, slot / width);
+        }
+    }
+
+    /**
+     * Get the layout of an inventory with the amount of slots in a row.
+     * The last row is partial if the size is not a multiple of the amount of slots in a row.
+     *
+     * @param slotPerRow the amount of slots in a row, or 0 to lay out the slots in a single row
+     * @param size       the amount of slots
+     * @return the layout
+     * @throws IllegalArgumentException if size is not positive, or slotPerRow is negative
+     */
+    public static @NotNull InventoryLayout of(int slotPerRow, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        if (slotPerRow < 0) {
+            throw new IllegalArgumentException("Slot per row cannot be negative");
+        }
+        int width = slotPerRow == 0 ? size : slotPerRow;
+        return LAYOUTS.computeIfAbsent(((long) width << 32) | size, key -> new InventoryLayout(width, size));
+    }
+
+    /**
+     * Get the layout of a grid inventory
+     *
+     * @param width  the amount of slots in a row
+     * @param height the amount of rows
+     * @return the layout
+     * @throws IllegalArgumentException if width or height is not positive
+     */
+    public static @NotNull InventoryLayout grid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Width and height must be positive");
+        }
+        return of(width, width * height);
+    }
+
+    /**
+     * Get the layout of an inventory that is not a grid. The slots are laid out in a single row.
+     *
+     * @param size the amount of slots
+     * @return the layout
+     * @throws IllegalArgumentException if size is not positive
+     */
+    public static @NotNull InventoryLayout row(int size) {
+        return of(0, size);
+    }
+
+    /**
+     * Get the amount of slots in a row
+     *
+     * @return the width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the amount of rows
+     *
+     * @return the height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the amount of slots
+     *
+     * @return the size
+     */
+    public int getSize() {
+        return positions.length;
+    }
+
+    /**
+     * Convert the coordinates to a slot
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the slot, or -1 if the coordinates are outside the layout
+     */
+    public int toSlot(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return -1;
+        return slots[y * width + x];
+    }
+
+    /**
+     * Convert the position to a slot
+     *
+     * @param position the position
+     * @return the slot, or -1 if the position is outside the layout
+     */
+    public int toSlot(@NotNull Position position) {
+        return toSlot(position.getX(), position.getY());
+    }
+
+    /**
+     * Convert the slot to a position
+     *
+     * @param slot the slot
+     * @return the position, or null if the slot is outside the layout
+     */
+    public @Nullable Position toPosition(int slot) {
+        return isValidSlot(slot) ? positions[slot] : null;
+    }
+
+    /**
+     * Check if the slot is in the layout.
+     * Use this to check the raw slots of the inventory events.
+     *
+     * @param slot the slot
+     * @return true if it is
+     */
+    public boolean isValidSlot(int slot) {
+        return slot >= 0 && slot < positions.length;
+    }
+
+    /**
+     * Check if the position is a cell of the layout that has a slot
+     *
+     * @param position the position
+     * @return true if it is
+     */
+    public boolean contains(@NotNull Position position) {
+        return toSlot(position) >= 0;
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.projectunified.craftux.common;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * An element whose display changes over time by itself.
+ * It reports the time of its next change, so the GUI only has to be updated at that time instead of on every tick.
+ * The times are read from the same clock as the animations of the element.
+ * An object that is not a timed element is treated as static, so an element containing other buttons or masks
+ * should implement this interface and report the earliest next change time of the children it displays.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * long now = clock.currentMillis();
+ * long next = TimedElement.getNextChangeMillis(mask, playerUUID, now);
+ * if (next != TimedElement.NEVER) {
+ *     scheduler.schedule(ui, next);
+ * }
+ * }</pre>
+ */
+public interface TimedElement {
+    /**
+     * The time returned when the element never changes by itself
+     */
+    long NEVER = Long.MAX_VALUE;
+
+    /**
+     * Get the next change time of the object if it's a timed element
+     *
+     * @param o             the object
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     * @return the next change time in milliseconds, or {@link #NEVER} if the object is not a timed element
+     */
+    static long getNextChangeMillis(Object o, @NotNull UUID uuid, long currentMillis) {
+        if (o instanceof TimedElement) {
+            return ((TimedElement) o).getNextChangeMillis(uuid, currentMillis);
+        }
+        return NEVER;
+    }
+
+    /**
+     * Get the earliest next change time of the objects
+     *
+     * @param collection    the objects
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     * @param <T>           the type of the objects
+     * @return the earliest next change time in milliseconds, or {@link #NEVER} if none of the objects changes by itself
+     */
+    static <T> long getNextChangeMillis(Collection<T> collection, @NotNull UUID uuid, long currentMillis) {
+        long next = NEVER;
+        for (T o : collection) {
+            next = Math.min(next, getNextChangeMillis(o, uuid, currentMillis));
+        }
+        return next;
+    }
+
+    /**
+     * Get the time of the next change for the unique id
+     *
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     * @return the next change time in milliseconds, the current time if the element should be rendered now, or {@link #NEVER} if it doesn't change by itself
+     */
+    long getNextChangeMillis(@NotNull UUID uuid, long currentMillis);
+}
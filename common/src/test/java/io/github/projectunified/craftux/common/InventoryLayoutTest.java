@@ -0,0 +1,71 @@
+package io.github.projectunified.craftux.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryLayoutTest {
+    @Test
+    void mapsGridPositionsToSlotsAndBack() {
+        InventoryLayout layout = InventoryLayout.grid(9, 6);
+
+        assertEquals(54, layout.getSize());
+        for (int slot = 0; slot < layout.getSize(); slot++) {
+            Position position = layout.toPosition(slot);
+            assertEquals(Position.of(slot % 9, slot / 9), position);
+            assertEquals(slot, layout.toSlot(position));
+        }
+        assertEquals(53, layout.toSlot(Position.of(8, 5)));
+    }
+
+    @Test
+    void dropsPositionsOutsideTheGrid() {
+        InventoryLayout layout = InventoryLayout.grid(9, 3);
+
+        assertEquals(-1, layout.toSlot(Position.of(9, 0)));
+        assertEquals(-1, layout.toSlot(Position.of(0, 3)));
+        assertEquals(-1, layout.toSlot(Position.of(-1, 0)));
+        assertEquals(-1, layout.toSlot(Position.of(0, -1)));
+        assertFalse(layout.contains(Position.of(9, 0)));
+        assertNull(layout.toPosition(27));
+        assertNull(layout.toPosition(-1));
+        assertFalse(layout.isValidSlot(27));
+    }
+
+    @Test
+    void masksTheMissingCellsOfAPartialRow() {
+        InventoryLayout hopper = InventoryLayout.of(3, 5);
+
+        assertEquals(3, hopper.getWidth());
+        assertEquals(2, hopper.getHeight());
+        assertEquals(3, hopper.toSlot(Position.of(0, 1)));
+        assertEquals(4, hopper.toSlot(Position.of(1, 1)));
+        assertEquals(-1, hopper.toSlot(Position.of(2, 1)));
+        assertFalse(hopper.contains(Position.of(2, 1)));
+        assertTrue(hopper.isValidSlot(4));
+        assertFalse(hopper.isValidSlot(5));
+    }
+
+    @Test
+    void laysOutOtherInventoriesAsASingleRow() {
+        InventoryLayout furnace = InventoryLayout.row(3);
+
+        assertSame(furnace, InventoryLayout.of(0, 3));
+        assertEquals(2, furnace.toSlot(Position.of(2, 0)));
+        assertEquals(-1, furnace.toSlot(Position.of(0, 1))); // Not sent to slot 0 of the first row
+        assertEquals(Position.of(1, 0), furnace.toPosition(1));
+    }
+
+    @Test
+    void sharesTheLayoutsOfTheSameShape() {
+        assertSame(InventoryLayout.grid(9, 3), InventoryLayout.of(9, 27));
+        assertNotSame(InventoryLayout.grid(9, 3), InventoryLayout.grid(3, 9));
+    }
+
+    @Test
+    void rejectsInvalidShapes() {
+        assertThrows(IllegalArgumentException.class, () -> InventoryLayout.grid(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> InventoryLayout.of(-1, 3));
+        assertThrows(IllegalArgumentException.class, () -> InventoryLayout.row(0));
+    }
+}
@@ -1,16 +1,19 @@
 package io.github.projectunified.craftux.mask;
 
 import io.github.projectunified.craftux.animation.Animation;
+import io.github.projectunified.craftux.animation.AnimationClock;
 import io.github.projectunified.craftux.animation.AnimationMode;
+import io.github.projectunified.craftux.animation.AnimationTimeline;
+import io.github.projectunified.craftux.animation.TimelineMode;
 import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.ActionItemSnapshot;
 import io.github.projectunified.craftux.common.Mask;
 import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.*;
 import java.util.function.Consumer;
 
 /**
@@ -27,12 +30,22 @@ import java.util.function.Consumer;
  * );
  * animatedMask.setPeriodMillis(1000); // 1 second per frame
  * Map<Position, Consumer<ActionItem>> actions = animatedMask.apply(playerUUID);
+ *
+ * AnimatedMask loadingBar = new AnimatedMask();
+ * loadingBar.add(loadingBarFrames);
+ * loadingBar.setPreBaked(true); // The frames are rendered once and shared by all players
  * }</pre>
  */
 public class AnimatedMask extends MultiMask<Mask> {
-    private final Map<UUID, Animation<Mask>> animationMap = new ConcurrentHashMap<>();
+    private static final UUID BAKE_UUID = new UUID(0, 0);
     private long periodMillis = 50;
+    private long[] frameDurations = null;
     private AnimationMode mode = AnimationMode.REPEAT;
+    private AnimationClock clock = AnimationClock.SYSTEM;
+    private TimelineMode timelineMode = TimelineMode.PER_VIEWER;
+    private volatile AnimationTimeline<Mask> timeline = null;
+    private boolean preBaked = false;
+    private volatile BakedFrames bakedFrames = null;
 
     /**
      * Set the period of the animation
@@ -46,6 +59,29 @@ public class AnimatedMask extends MultiMask<Mask> {
         this.periodMillis = periodMillis;
     }
 
+    /**
+     * Set the duration of every frame of the animation, overriding the period.
+     * The masks added afterward reuse the last duration.
+     * The animation is restarted with the new durations.
+     *
+     * @param frameDurations the duration in milliseconds of every frame, or null to use the period for all the frames
+     * @throws IllegalArgumentException if the amount of durations doesn't match the amount of masks, or any duration is not positive
+     */
+    public void setFrameDurations(long... frameDurations) {
+        if (frameDurations != null) {
+            if (frameDurations.length != this.elements.size()) {
+                throw new IllegalArgumentException("The amount of durations must match the amount of masks");
+            }
+            for (long duration : frameDurations) {
+                if (duration <= 0) {
+                    throw new IllegalArgumentException("Duration must be positive");
+                }
+            }
+        }
+        this.frameDurations = frameDurations == null ? null : frameDurations.clone();
+        this.timeline = null;
+    }
+
     /**
      * Set the mode of the animation
      *
@@ -55,31 +91,203 @@ public class AnimatedMask extends MultiMask<Mask> {
         this.mode = mode;
     }
 
+    /**
+     * Set the clock of the animation.
+     * Share a {@link io.github.projectunified.craftux.animation.SnapshotClock} or a {@link io.github.projectunified.craftux.animation.TickClock}
+     * between the animated elements so that they read the same time in a render pass.
+     * The animation already started keeps its clock until it's stopped.
+     *
+     * @param clock the clock
+     */
+    public void setClock(@NotNull AnimationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Set the timeline mode of the animation.
+     * Use {@link TimelineMode#SYNCHRONIZED} or {@link TimelineMode#PHASE_OFFSET} to avoid keeping an animation for every unique id.
+     * The mode is applied when the animation is started again after it's stopped.
+     *
+     * @param timelineMode the timeline mode
+     */
+    public void setTimelineMode(@NotNull TimelineMode timelineMode) {
+        this.timelineMode = timelineMode;
+    }
+
+    /**
+     * Set whether the frames are pre-baked.
+     * The pre-baked frames are rendered once into the slot items and shared by all the unique ids,
+     * and the slots that don't change between two consecutive frames reuse the same action item consumer.
+     * Only use this mode when the frames don't depend on the unique id and don't change over time by themselves.
+     *
+     * @param preBaked true to pre-bake the frames
+     */
+    public void setPreBaked(boolean preBaked) {
+        this.preBaked = preBaked;
+        this.bakedFrames = null;
+    }
+
+    /**
+     * Check if the frames are pre-baked
+     *
+     * @return true if they are
+     */
+    public boolean isPreBaked() {
+        return preBaked;
+    }
+
+    /**
+     * Adds child masks as frames to this mask.
+     * The pre-baked frames are baked again on the next render.
+     *
+     * @param elements the child masks to add
+     * @param <R>      the type of the child masks
+     */
+    @Override
+    public <R extends Mask> void add(Collection<R> elements) {
+        synchronized (this) {
+            super.add(elements);
+            this.bakedFrames = null;
+        }
+    }
+
+    private BakedFrames getBakedFrames(Mask frame) {
+        BakedFrames bakedFrames = this.bakedFrames;
+        if (bakedFrames == null || !bakedFrames.isValid(elements.size(), frame)) {
+            synchronized (this) {
+                bakedFrames = this.bakedFrames;
+                if (bakedFrames == null || !bakedFrames.isValid(elements.size(), frame)) {
+                    bakedFrames = new BakedFrames(elements);
+                    this.bakedFrames = bakedFrames;
+                }
+            }
+        }
+        return bakedFrames;
+    }
+
     /**
      * Reset the animation for the unique id
      *
      * @param uuid the unique id
      */
     public void reset(UUID uuid) {
-        Animation<Mask> animation = animationMap.get(uuid);
-        if (animation != null) {
-            animation.reset();
+        AnimationTimeline<Mask> timeline = this.timeline;
+        if (timeline != null) {
+            timeline.reset(uuid);
+        }
+    }
+
+    private Animation<Mask> createAnimation() {
+        long[] frameDurations = this.frameDurations;
+        if (frameDurations == null) {
+            return new Animation<>(elements, periodMillis, mode, clock);
         }
+        return new Animation<>(elements, frameDurations, mode, clock);
     }
 
-    private Animation<Mask> getAnimation(@NotNull UUID uuid) {
-        return animationMap.computeIfAbsent(uuid, k -> new Animation<>(elements, periodMillis, mode));
+    private AnimationTimeline<Mask> getTimeline() {
+        AnimationTimeline<Mask> timeline = this.timeline;
+        if (timeline == null) {
+            synchronized (this) {
+                timeline = this.timeline;
+                if (timeline == null) {
+                    timeline = new AnimationTimeline<>(this::createAnimation, timelineMode, clock);
+                    this.timeline = timeline;
+                }
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * Pause the animation of the unique id and suspend the child elements
+     *
+     * @param uuid the unique id
+     */
+    @Override
+    public void suspend(UUID uuid) {
+        AnimationTimeline<Mask> timeline = this.timeline;
+        if (timeline != null) {
+            timeline.pause(uuid, timeline.getClock().currentMillis());
+        }
+        super.suspend(uuid);
+    }
+
+    /**
+     * Resume the animation of the unique id from the frame it was paused at and resume the child elements
+     *
+     * @param uuid the unique id
+     */
+    @Override
+    public void resume(UUID uuid) {
+        AnimationTimeline<Mask> timeline = this.timeline;
+        if (timeline != null) {
+            timeline.resume(uuid, timeline.getClock().currentMillis());
+        }
+        super.resume(uuid);
     }
 
     @Override
     public void stop() {
-        this.animationMap.clear();
+        this.timeline = null;
+        this.bakedFrames = null;
         super.stop();
     }
 
     @Override
     public @Nullable Map<Position, Consumer<ActionItem>> apply(@NotNull UUID uuid) {
         if (elements.isEmpty()) return null;
-        return getAnimation(uuid).getCurrentFrame().apply(uuid);
+        Mask frame = getTimeline().getCurrentFrame(uuid);
+        if (frame == null) return null;
+        if (preBaked) {
+            return getBakedFrames(frame).frameMap.get(frame);
+        }
+        return frame.apply(uuid);
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        if (this.elements.isEmpty()) return TimedElement.NEVER;
+        AnimationTimeline<Mask> timeline = getTimeline();
+        long next = timeline.getNextFrameChangeMillis(uuid, currentMillis);
+        if (next <= currentMillis || preBaked) return next;
+        return Math.min(next, TimedElement.getNextChangeMillis(timeline.getCurrentFrame(uuid, currentMillis), uuid, currentMillis));
+    }
+
+    private static final class BakedFrames {
+        private final Map<Mask, Map<Position, Consumer<ActionItem>>> frameMap = new IdentityHashMap<>();
+        private final int frameCount;
+
+        private BakedFrames(List<Mask> masks) {
+            this.frameCount = masks.size();
+            Map<Position, Consumer<ActionItem>> previous = Collections.emptyMap();
+            for (Mask mask : masks) {
+                Map<Position, Consumer<ActionItem>> frame = frameMap.get(mask);
+                if (frame == null) {
+                    frame = bake(mask, previous);
+                    frameMap.put(mask, frame);
+                }
+                previous = frame;
+            }
+        }
+
+        private boolean isValid(int frameCount, Mask frame) {
+            return this.frameCount == frameCount && frameMap.containsKey(frame);
+        }
+
+        private static Map<Position, Consumer<ActionItem>> bake(Mask mask, Map<Position, Consumer<ActionItem>> previous) {
+            Map<Position, Consumer<ActionItem>> appliedMap = mask.apply(BAKE_UUID);
+            if (appliedMap == null) return Collections.emptyMap();
+
+            Map<Position, Consumer<ActionItem>> frame = new HashMap<>();
+            for (Map.Entry<Position, Consumer<ActionItem>> entry : appliedMap.entrySet()) {
+                ActionItem actionItem = new ActionItem();
+                entry.getValue().accept(actionItem);
+                ActionItemSnapshot slot = ActionItemSnapshot.of(actionItem);
+                Consumer<ActionItem> previousSlot = previous.get(entry.getKey());
+                frame.put(entry.getKey(), slot.equals(previousSlot) ? previousSlot : slot);
+            }
+            return Collections.unmodifiableMap(frame);
+        }
     }
 }
@@ -0,0 +1,348 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An abstract paginated mask that loads the buttons of each page asynchronously.
+ * Loading buttons are displayed until the page is loaded, and the pages around the current page are prefetched.
+ * Loads of pages that are no longer around the current page are cancelled.
+ * A page whose load failed shows the failed button and is not requested again until the retry time has passed,
+ * so a failing backend is not queried on every render.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * public class MyAsyncPaginatedMask extends AsyncPaginatedMask {
+ *     public MyAsyncPaginatedMask() {
+ *         super(uuid -> MaskUtils.generateAreaPositions(Position.of(0, 0), Position.of(8, 4)));
+ *         setLoadingButton(new SimpleButton(new ItemStack(Material.GRAY_STAINED_GLASS_PANE)));
+ *         setFailedButton(new SimpleButton(new ItemStack(Material.BARRIER)));
+ *         setRetryMillis(10000); // Query a failed page again after 10 seconds
+ *         setPageLoadListener(uuid -> Bukkit.getScheduler().runTask(plugin, () -> ui.update()));
+ *     }
+ *
+ *     @Override
+ *     protected CompletableFuture<List<Button>> loadPage(UUID uuid, int pageNumber, int pageSize) {
+ *         return database.queryListings(pageNumber * pageSize, pageSize)
+ *                 .thenApply(listings -> listings.stream().map(ListingButton::new).collect(Collectors.toList()));
+ *     }
+ *
+ *     @Override
+ *     public int getPageAmount(UUID uuid) {
+ *         return cachedPageAmount;
+ *     }
+ * }
+ * }</pre>
+ */
+public abstract class AsyncPaginatedMask extends PaginatedMask {
+    protected final Function<UUID, List<Position>> maskPositionFunction;
+    private final Map<UUID, Map<Integer, PageLoad>> pageFutureMap = new ConcurrentHashMap<>();
+    private final AtomicLong loadCounter = new AtomicLong();
+    private Button loadingButton = (uuid, actionItem) -> false;
+    private @Nullable Button failedButton = null;
+    private @Nullable Consumer<UUID> pageLoadListener = null;
+    private int prefetchRange = 1;
+    private long retryMillis = 5000;
+
+    /**
+     * Create a new mask
+     *
+     * @param maskPositionFunction the mask position function
+     */
+    protected AsyncPaginatedMask(@NotNull Function<UUID, List<Position>> maskPositionFunction) {
+        this.maskPositionFunction = maskPositionFunction;
+    }
+
+    /**
+     * Load the buttons of the page
+     *
+     * @param uuid       the unique id
+     * @param pageNumber the page number
+     * @param pageSize   the amount of positions in a page
+     * @return the future of the buttons
+     */
+    @NotNull
+    protected abstract CompletableFuture<List<Button>> loadPage(@NotNull UUID uuid, int pageNumber, int pageSize);
+
+    /**
+     * Get the mask position function
+     *
+     * @return the mask position function
+     */
+    @NotNull
+    public Function<UUID, List<Position>> getMaskPositionFunction() {
+        return maskPositionFunction;
+    }
+
+    /**
+     * Get the button displayed in the positions of a page that is being loaded
+     *
+     * @return the loading button
+     */
+    @NotNull
+    public Button getLoadingButton() {
+        return loadingButton;
+    }
+
+    /**
+     * Set the button displayed in the positions of a page that is being loaded
+     *
+     * @param loadingButton the loading button
+     */
+    public void setLoadingButton(@NotNull Button loadingButton) {
+        this.loadingButton = loadingButton;
+    }
+
+    /**
+     * Set the button displayed in the positions of a page whose load failed
+     *
+     * @param failedButton the failed button, or null to display the loading button
+     */
+    public void setFailedButton(@Nullable Button failedButton) {
+        this.failedButton = failedButton;
+    }
+
+    /**
+     * Set the time a failed page is kept before it's requested again
+     *
+     * @param retryMillis the retry time in milliseconds, or 0 to request the page again on the next render
+     * @throws IllegalArgumentException if retryMillis is negative
+     */
+    public void setRetryMillis(long retryMillis) {
+        if (retryMillis < 0) {
+            throw new IllegalArgumentException("Retry time cannot be negative");
+        }
+        this.retryMillis = retryMillis;
+    }
+
+    /**
+     * Check if the load of the page of the unique id failed and is waiting for the retry time
+     *
+     * @param uuid       the unique id
+     * @param pageNumber the page number
+     * @return true if it is
+     */
+    public boolean isPageFailed(@NotNull UUID uuid, int pageNumber) {
+        Map<Integer, PageLoad> futureMap = this.pageFutureMap.get(uuid);
+        if (futureMap == null) return false;
+        PageLoad load = futureMap.get(pageNumber);
+        return load != null && load.future.isCompletedExceptionally();
+    }
+
+    /**
+     * Set the listener called when the current page of the unique id is loaded or its load failed.
+     * Use this to update the GUI. Note that the listener is called on the thread that completes the load.
+     *
+     * @param pageLoadListener the listener
+     */
+    public void setPageLoadListener(@Nullable Consumer<UUID> pageLoadListener) {
+        this.pageLoadListener = pageLoadListener;
+    }
+
+    /**
+     * Set the amount of pages on each side of the current page to prefetch
+     *
+     * @param prefetchRange the amount of pages
+     */
+    public void setPrefetchRange(int prefetchRange) {
+        if (prefetchRange < 0) {
+            throw new IllegalArgumentException("Prefetch range cannot be negative");
+        }
+        this.prefetchRange = prefetchRange;
+    }
+
+    /**
+     * Cancel all the loads of the unique id and remove the loaded pages.
+     * Call this when the data changes so that the pages are loaded again on the next render.
+     *
+     * @param uuid the unique id
+     */
+    public void cancel(@NotNull UUID uuid) {
+        Map<Integer, PageLoad> futureMap = this.pageFutureMap.remove(uuid);
+        if (futureMap != null) {
+            futureMap.values().forEach(load -> load.future.cancel(true));
+        }
+    }
+
+    private long getRetryDelay(PageLoad load, long currentMillis) {
+        long failedMillis = load.failedMillis;
+        if (failedMillis < 0) return -1;
+        return Math.max(0, failedMillis + retryMillis - currentMillis);
+    }
+
+    private CompletableFuture<List<Button>> requestPage(UUID uuid, Map<Integer, PageLoad> futureMap, int pageNumber, int pageSize) {
+        PageLoad load = futureMap.get(pageNumber);
+        if (load != null) {
+            if (getRetryDelay(load, System.currentTimeMillis()) != 0) return load.future;
+            futureMap.remove(pageNumber, load); // The retry time has passed
+        }
+
+        CompletableFuture<List<Button>> future = loadPage(uuid, pageNumber, pageSize);
+        load = new PageLoad(future, this.loadCounter.incrementAndGet());
+        PageLoad previousLoad = futureMap.putIfAbsent(pageNumber, load);
+        if (previousLoad != null) {
+            future.cancel(true);
+            return previousLoad.future;
+        }
+
+        if (future.isDone()) {
+            if (future.isCompletedExceptionally()) {
+                load.failedMillis = System.currentTimeMillis();
+            }
+            return future;
+        }
+
+        PageLoad currentLoad = load;
+        future.whenComplete((buttons, throwable) -> {
+            if (throwable != null) {
+                currentLoad.failedMillis = System.currentTimeMillis();
+            }
+            Consumer<UUID> listener = this.pageLoadListener;
+            if (listener != null && this.pageFutureMap.get(uuid) == futureMap && this.getPage(uuid) == pageNumber) {
+                listener.accept(uuid);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Get the version of the loaded page of the unique id. Every load of a page has its own version,
+     * so a cached page expires when the page is loaded again, and the pages that are still loading are not cached.
+     *
+     * @param uuid       the unique id
+     * @param pageNumber the page number
+     * @return the data version, or {@link #UNVERSIONED} if the page is not loaded
+     */
+    @Override
+    protected long getDataVersion(@NotNull UUID uuid, int pageNumber) {
+        Map<Integer, PageLoad> futureMap = this.pageFutureMap.get(uuid);
+        if (futureMap == null) return UNVERSIONED;
+        PageLoad load = futureMap.get(pageNumber);
+        if (load == null || !load.future.isDone() || load.future.isCompletedExceptionally()) return UNVERSIONED;
+        return load.version;
+    }
+
+    /**
+     * Get the next change time of the loaded buttons of the current page.
+     * A page that is being loaded does not change by itself: the page load listener is called when it is loaded.
+     * A failed page changes when its retry time has passed, so it's requested again.
+     *
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     * @return the next change time in milliseconds
+     */
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        Map<Integer, PageLoad> futureMap = this.pageFutureMap.get(uuid);
+        if (futureMap == null) return TimedElement.NEVER;
+        PageLoad load = futureMap.get(this.getPage(uuid));
+        if (load == null || !load.future.isDone()) return TimedElement.NEVER;
+        if (load.future.isCompletedExceptionally()) {
+            long retryDelay = getRetryDelay(load, System.currentTimeMillis());
+            return retryDelay < 0 ? currentMillis : currentMillis + retryDelay;
+        }
+        return TimedElement.getNextChangeMillis(load.future.join(), uuid, currentMillis);
+    }
+
+    @Override
+    protected @Nullable Map<Position, Consumer<ActionItem>> getItemMap(@NotNull UUID uuid, int pageNumber) {
+        List<Position> positions = this.maskPositionFunction.apply(uuid);
+        if (positions.isEmpty()) return null;
+        int pageAmount = getPageAmount(uuid);
+        if (pageAmount <= 0) return null;
+        pageNumber = this.getAndSetExactPage(uuid, pageNumber, pageAmount);
+
+        int pageSize = positions.size();
+        Map<Integer, PageLoad> futureMap = this.pageFutureMap.computeIfAbsent(uuid, k -> new ConcurrentHashMap<>());
+
+        Set<Integer> window = new HashSet<>();
+        window.add(pageNumber);
+        for (int i = 1; i <= prefetchRange; i++) {
+            window.add(this.getExactPage(pageNumber - i, pageAmount));
+            window.add(this.getExactPage(pageNumber + i, pageAmount));
+        }
+        Iterator<Map.Entry<Integer, PageLoad>> iterator = futureMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, PageLoad> entry = iterator.next();
+            if (!window.contains(entry.getKey())) {
+                entry.getValue().future.cancel(true);
+                iterator.remove();
+            }
+        }
+
+        CompletableFuture<List<Button>> future = requestPage(uuid, futureMap, pageNumber, pageSize);
+        for (int page : window) {
+            if (page != pageNumber) {
+                requestPage(uuid, futureMap, page, pageSize);
+            }
+        }
+
+        Map<Position, Consumer<ActionItem>> map = new HashMap<>();
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            List<Button> buttons = future.join();
+            int buttonsSize = Math.min(buttons.size(), pageSize);
+            for (int i = 0; i < buttonsSize; i++) {
+                map.put(positions.get(i), buttons.get(i).apply(uuid));
+            }
+        } else {
+            Button failedButton = this.failedButton;
+            Button button = future.isCompletedExceptionally() && failedButton != null ? failedButton : this.loadingButton;
+            Consumer<ActionItem> consumer = button.apply(uuid);
+            for (Position position : positions) {
+                map.put(position, consumer);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Cancels the pending loads of the unique id, since the pages are requested again when the unique id views the mask.
+     * The loaded and failed pages are kept, so they are shown at once when the unique id views the mask again.
+     * They are only removed by {@link #cancel(UUID)} and {@link #stop()},
+     * so call {@link #cancel(UUID)} when the unique id will not view the mask again (e.g. the player quits).
+     *
+     * @param uuid the unique id
+     */
+    @Override
+    public void suspend(UUID uuid) {
+        Map<Integer, PageLoad> futureMap = this.pageFutureMap.get(uuid);
+        if (futureMap == null) return;
+        futureMap.entrySet().removeIf(entry -> {
+            if (entry.getValue().future.isDone()) return false;
+            entry.getValue().future.cancel(true);
+            return true;
+        });
+    }
+
+    /**
+     * Cancels all the loads and clears the page number mappings and the cached pages for all users.
+     */
+    @Override
+    public void stop() {
+        this.pageFutureMap.values().forEach(futureMap -> futureMap.values().forEach(load -> load.future.cancel(true)));
+        this.pageFutureMap.clear();
+        super.stop();
+    }
+
+    private static final class PageLoad {
+        private final CompletableFuture<List<Button>> future;
+        private final long version;
+        private volatile long failedMillis = -1;
+
+        private PageLoad(CompletableFuture<List<Button>> future, long version) {
+            this.future = future;
+            this.version = version;
+        }
+    }
+}
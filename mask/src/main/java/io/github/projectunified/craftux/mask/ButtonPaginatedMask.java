@@ -3,6 +3,7 @@ package io.github.projectunified.craftux.mask;
 import io.github.projectunified.craftux.common.ActionItem;
 import io.github.projectunified.craftux.common.Button;
 import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -10,12 +11,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * An abstract mask that displays a paginated list of buttons across multiple pages.
- * Subclasses define the positions and button lists, while this class handles pagination logic.
+ * Subclasses define the positions and the buttons, while this class handles pagination logic.
+ * The buttons are provided as a list with {@link #getButtons(UUID)}.
+ * Use {@link ButtonSourcePaginatedMask} to provide them as a range-accessed {@link ButtonSource} instead.
  *
  * <p>Example usage:</p>
  * <pre>{@code
@@ -36,6 +40,7 @@ import java.util.function.Function;
  */
 public abstract class ButtonPaginatedMask extends PaginatedMask {
     private final Function<UUID, List<Position>> maskPositionFunction;
+    private final Map<UUID, PageAmountCache> pageAmountCacheMap = new ConcurrentHashMap<>();
 
     /**
      * Create a new mask
@@ -65,49 +70,108 @@ public abstract class ButtonPaginatedMask extends PaginatedMask {
     @NotNull
     public abstract List<Button> getButtons(@NotNull UUID uuid);
 
-    private int getPageAmount(List<Position> positions, List<Button> buttons) {
-        return (int) Math.ceil((double) buttons.size() / positions.size());
+    /**
+     * Get the button source for the unique id. By default, it wraps the list from {@link #getButtons(UUID)}.
+     * Override this so that only the buttons of the displayed page are fetched.
+     *
+     * @param uuid the unique id
+     * @return the button source
+     */
+    @NotNull
+    public ButtonSource getButtonSource(@NotNull UUID uuid) {
+        return ButtonSource.of(getButtons(uuid));
+    }
+
+    private int getPageAmount(@NotNull UUID uuid, int positionSize, ButtonSource source) {
+        long version = source.getVersion();
+        if (version == ButtonSource.UNVERSIONED) {
+            return getPageAmount(positionSize, source.size());
+        }
+
+        PageAmountCache cache = this.pageAmountCacheMap.get(uuid);
+        if (cache != null && cache.version == version && cache.positionSize == positionSize) {
+            return cache.pageAmount;
+        }
+
+        int pageAmount = getPageAmount(positionSize, source.size());
+        this.pageAmountCacheMap.put(uuid, new PageAmountCache(version, positionSize, pageAmount));
+        return pageAmount;
+    }
+
+    private int getPageAmount(int positionSize, int buttonSize) {
+        return (buttonSize + positionSize - 1) / positionSize;
+    }
+
+    /**
+     * Get the version of the button source
+     *
+     * @param uuid the unique id
+     * @return the data version, or {@link #UNVERSIONED} if the source does not track its changes
+     */
+    @Override
+    protected long getDataVersion(@NotNull UUID uuid) {
+        return getButtonSource(uuid).getVersion();
     }
 
     @Override
     protected @Nullable Map<Position, Consumer<ActionItem>> getItemMap(@NotNull UUID uuid, int pageNumber) {
         List<Position> positions = this.maskPositionFunction.apply(uuid);
-        List<Button> buttons = getButtons(uuid);
-        if (buttons.isEmpty() || positions.isEmpty()) return null;
+        if (positions.isEmpty()) return null;
+        ButtonSource source = getButtonSource(uuid);
 
-        int pageAmount = this.getPageAmount(positions, buttons);
+        int positionSize = positions.size();
+        int pageAmount = this.getPageAmount(uuid, positionSize, source);
+        if (pageAmount <= 0) return null;
         pageNumber = this.getAndSetExactPage(uuid, pageNumber, pageAmount);
 
+        List<Button> buttons = source.get(pageNumber * positionSize, positionSize);
         Map<Position, Consumer<ActionItem>> map = new HashMap<>();
-        int positionSize = positions.size();
-        int offset = pageNumber * positionSize;
-        int buttonsSize = buttons.size();
-
-        for (int i = 0; i < positionSize; i++) {
-            int index = i + offset;
-            if (index >= buttonsSize) {
-                break;
-            }
-            Button button = buttons.get(index);
-            map.put(positions.get(i), button.apply(uuid));
+        int buttonsSize = Math.min(buttons.size(), positionSize);
+        for (int i = 0; i < buttonsSize; i++) {
+            map.put(positions.get(i), buttons.get(i).apply(uuid));
         }
 
         return map;
     }
 
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        List<Position> positions = this.maskPositionFunction.apply(uuid);
+        if (positions.isEmpty()) return TimedElement.NEVER;
+        ButtonSource source = getButtonSource(uuid);
+
+        int positionSize = positions.size();
+        int pageAmount = this.getPageAmount(uuid, positionSize, source);
+        if (pageAmount <= 0) return TimedElement.NEVER;
+        int pageNumber = this.getExactPage(this.getPage(uuid), pageAmount);
+        return TimedElement.getNextChangeMillis(source.get(pageNumber * positionSize, positionSize), uuid, currentMillis);
+    }
+
     @Override
     public int getPageAmount(@NotNull UUID uuid) {
         List<Position> positions = this.maskPositionFunction.apply(uuid);
-        List<Button> buttons = getButtons(uuid);
-        if (buttons.isEmpty() || positions.isEmpty()) return 0;
-        return this.getPageAmount(positions, buttons);
+        if (positions.isEmpty()) return 0;
+        return this.getPageAmount(uuid, positions.size(), getButtonSource(uuid));
     }
 
     /**
-     * Clears the page number mappings for all users.
+     * Clears the page number and page amount mappings and the cached pages for all users.
      */
     @Override
     public void stop() {
-        this.pageNumberMap.clear();
+        super.stop();
+        this.pageAmountCacheMap.clear();
+    }
+
+    private static final class PageAmountCache {
+        private final long version;
+        private final int positionSize;
+        private final int pageAmount;
+
+        private PageAmountCache(long version, int positionSize, int pageAmount) {
+            this.version = version;
+            this.positionSize = positionSize;
+            this.pageAmount = pageAmount;
+        }
     }
 }
@@ -0,0 +1,85 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.Button;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A source of buttons that can be accessed by range, so that paginated masks only fetch the buttons of the displayed page.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * ButtonSource source = new ButtonSource() {
+ *     @Override
+ *     public int size() {
+ *         return auctionHouse.getListingCount();
+ *     }
+ *
+ *     @Override
+ *     public List<Button> get(int offset, int count) {
+ *         return auctionHouse.getListings(offset, count).stream().map(ListingButton::new).collect(Collectors.toList());
+ *     }
+ *
+ *     @Override
+ *     public long getVersion() {
+ *         return auctionHouse.getModificationCount();
+ *     }
+ * };
+ * }</pre>
+ */
+public interface ButtonSource {
+    /**
+     * The version of a source that does not track its changes
+     */
+    long UNVERSIONED = -1;
+
+    /**
+     * Create a source from the list of buttons
+     *
+     * @param buttons the list of buttons
+     * @return the source
+     */
+    static ButtonSource of(@NotNull List<Button> buttons) {
+        return new ButtonSource() {
+            @Override
+            public int size() {
+                return buttons.size();
+            }
+
+            @Override
+            public @NotNull List<Button> get(int offset, int count) {
+                int size = buttons.size();
+                if (offset >= size || count <= 0) return Collections.emptyList();
+                return buttons.subList(Math.max(0, offset), Math.min(size, offset + count));
+            }
+        };
+    }
+
+    /**
+     * Get the amount of buttons in the source
+     *
+     * @return the amount of buttons
+     */
+    int size();
+
+    /**
+     * Get the buttons in the range
+     *
+     * @param offset the index of the first button
+     * @param count  the maximum amount of buttons
+     * @return the buttons in the range. Can be shorter than the count if the range exceeds the size
+     */
+    @NotNull
+    List<Button> get(int offset, int count);
+
+    /**
+     * Get the version of the source. The version should change whenever the buttons in the source change.
+     *
+     * @return the version, or {@link #UNVERSIONED} if the source does not track its changes
+     */
+    default long getVersion() {
+        return UNVERSIONED;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Position;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * An abstract {@link ButtonPaginatedMask} that provides the buttons as a range-accessed {@link ButtonSource},
+ * so that only the buttons of the displayed page are fetched.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * public class AuctionMask extends ButtonSourcePaginatedMask {
+ *     public AuctionMask() {
+ *         super(uuid -> MaskUtils.generateAreaPositions(Position.of(0, 0), Position.of(8, 4)));
+ *     }
+ *
+ *     @Override
+ *     public ButtonSource getButtonSource(UUID uuid) {
+ *         return auctionHouse.getButtonSource();
+ *     }
+ * }
+ * }</pre>
+ */
+public abstract class ButtonSourcePaginatedMask extends ButtonPaginatedMask {
+    /**
+     * Create a new mask
+     *
+     * @param maskPositionFunction the mask position function
+     */
+    protected ButtonSourcePaginatedMask(@NotNull Function<UUID, List<Position>> maskPositionFunction) {
+        super(maskPositionFunction);
+    }
+
+    /**
+     * Get the button source for the unique id
+     *
+     * @param uuid the unique id
+     * @return the button source
+     */
+    @Override
+    @NotNull
+    public abstract ButtonSource getButtonSource(@NotNull UUID uuid);
+
+    /**
+     * Get all the buttons of the button source
+     *
+     * @param uuid the unique id
+     * @return the buttons
+     */
+    @Override
+    @NotNull
+    public final List<Button> getButtons(@NotNull UUID uuid) {
+        ButtonSource source = getButtonSource(uuid);
+        return source.get(0, source.size());
+    }
+}
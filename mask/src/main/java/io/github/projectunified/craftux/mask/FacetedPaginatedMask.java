@@ -0,0 +1,242 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Position;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A paginated mask that displays the entries of a catalog matching the facet filters of the unique id.
+ * Each facet value keeps a bit set of its entries, so the filters are combined with bitwise operations:
+ * the values of a facet are combined with OR, and the facets are combined with AND.
+ * The page amount is computed from the cardinality of the result, and the page offset is located with rank/select.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * FacetedPaginatedMask catalogMask = new FacetedPaginatedMask(uuid -> MaskUtils.generateAreaPositions(Position.of(0, 0), Position.of(8, 4)));
+ * for (ShopItem item : shopItems) {
+ *     Map<String, Object> facets = new HashMap<>();
+ *     facets.put("category", item.getCategory());
+ *     facets.put("rarity", item.getRarity());
+ *     facets.put("tags", item.getTags()); // A collection adds the entry to every value
+ *     catalogMask.addEntry(new ShopItemButton(item), facets);
+ * }
+ * catalogMask.setFilter(playerUUID, "category", Arrays.asList("weapon", "armor"));
+ * catalogMask.setFilter(playerUUID, "rarity", Collections.singletonList("epic"));
+ * int epicSwords = catalogMask.count(playerUUID, "tags", "sword");
+ * }</pre>
+ */
+public class FacetedPaginatedMask extends ButtonSourcePaginatedMask {
+    private final List<Button> buttons = new ArrayList<>();
+    private final Map<String, Map<Object, BitSet>> facetMap = new HashMap<>();
+    private final Map<UUID, FilterState> filterMap = new ConcurrentHashMap<>();
+    private final AtomicLong versionCounter = new AtomicLong();
+    private volatile long catalogVersion = 0;
+
+    /**
+     * Create a new mask
+     *
+     * @param maskPositionFunction the mask position function
+     */
+    public FacetedPaginatedMask(@NotNull Function<UUID, List<Position>> maskPositionFunction) {
+        super(maskPositionFunction);
+    }
+
+    /**
+     * Add an entry to the catalog
+     *
+     * @param button      the button of the entry
+     * @param facetValues the map of facets to values. If the value is a collection, the entry is added to every value in it
+     */
+    public void addEntry(@NotNull Button button, @NotNull Map<String, ?> facetValues) {
+        synchronized (buttons) {
+            int id = buttons.size();
+            buttons.add(button);
+            for (Map.Entry<String, ?> entry : facetValues.entrySet()) {
+                Map<Object, BitSet> valueMap = facetMap.computeIfAbsent(entry.getKey(), k -> new HashMap<>());
+                Object value = entry.getValue();
+                if (value instanceof Collection) {
+                    for (Object o : (Collection<?>) value) {
+                        valueMap.computeIfAbsent(o, k -> new BitSet()).set(id);
+                    }
+                } else {
+                    valueMap.computeIfAbsent(value, k -> new BitSet()).set(id);
+                }
+            }
+            catalogVersion = versionCounter.incrementAndGet();
+        }
+    }
+
+    /**
+     * Remove all the entries from the catalog
+     */
+    public void clearEntries() {
+        synchronized (buttons) {
+            buttons.clear();
+            facetMap.clear();
+            catalogVersion = versionCounter.incrementAndGet();
+        }
+    }
+
+    /**
+     * Set the filter of the facet for the unique id. The entries having any of the values pass the filter.
+     * The page of the unique id is reset to the first page.
+     *
+     * @param uuid   the unique id
+     * @param facet  the facet
+     * @param values the accepted values
+     */
+    public void setFilter(@NotNull UUID uuid, @NotNull String facet, @NotNull Collection<?> values) {
+        FilterState state = filterMap.computeIfAbsent(uuid, k -> new FilterState());
+        synchronized (state) {
+            state.filters.put(facet, new HashSet<>(values));
+            state.result = null;
+        }
+        setPage(uuid, 0);
+    }
+
+    /**
+     * Remove the filter of the facet for the unique id. The page of the unique id is reset to the first page.
+     *
+     * @param uuid  the unique id
+     * @param facet the facet
+     */
+    public void removeFilter(@NotNull UUID uuid, @NotNull String facet) {
+        FilterState state = filterMap.get(uuid);
+        if (state == null) return;
+        synchronized (state) {
+            if (state.filters.remove(facet) == null) return;
+            state.result = null;
+        }
+        setPage(uuid, 0);
+    }
+
+    /**
+     * Remove all the filters for the unique id. The page of the unique id is reset to the first page.
+     *
+     * @param uuid the unique id
+     */
+    public void clearFilters(@NotNull UUID uuid) {
+        filterMap.remove(uuid);
+        setPage(uuid, 0);
+    }
+
+    /**
+     * Count the entries matching the filters of the unique id and having the value of the facet
+     *
+     * @param uuid  the unique id
+     * @param facet the facet
+     * @param value the value
+     * @return the amount of entries
+     */
+    public int count(@NotNull UUID uuid, @NotNull String facet, @NotNull Object value) {
+        BitSet result = getResultBits(uuid);
+        synchronized (buttons) {
+            BitSet valueBits = facetMap.getOrDefault(facet, Collections.emptyMap()).get(value);
+            if (valueBits == null) return 0;
+            result.and(valueBits);
+        }
+        return result.cardinality();
+    }
+
+    private BitSet getResultBits(UUID uuid) {
+        FilterState state = filterMap.get(uuid);
+        Map<String, Set<Object>> filters = Collections.emptyMap();
+        if (state != null) {
+            synchronized (state) {
+                filters = new HashMap<>(state.filters);
+            }
+        }
+
+        synchronized (buttons) {
+            BitSet result = new BitSet(buttons.size());
+            result.set(0, buttons.size());
+            for (Map.Entry<String, Set<Object>> entry : filters.entrySet()) {
+                Map<Object, BitSet> valueMap = facetMap.getOrDefault(entry.getKey(), Collections.emptyMap());
+                BitSet facetBits = new BitSet();
+                for (Object value : entry.getValue()) {
+                    BitSet valueBits = valueMap.get(value);
+                    if (valueBits != null) {
+                        facetBits.or(valueBits);
+                    }
+                }
+                result.and(facetBits);
+            }
+            return result;
+        }
+    }
+
+    private FilterResult getResult(UUID uuid) {
+        FilterState state = filterMap.computeIfAbsent(uuid, k -> new FilterState());
+        synchronized (state) {
+            FilterResult result = state.result;
+            long version = catalogVersion;
+            if (result == null || result.catalogVersion != version) {
+                result = new FilterResult(new RankSelectBitSet(getResultBits(uuid)), version, versionCounter.incrementAndGet());
+                state.result = result;
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public @NotNull ButtonSource getButtonSource(@NotNull UUID uuid) {
+        FilterResult result = getResult(uuid);
+        RankSelectBitSet bits = result.bits;
+        return new ButtonSource() {
+            @Override
+            public int size() {
+                return bits.cardinality();
+            }
+
+            @Override
+            public @NotNull List<Button> get(int offset, int count) {
+                int index = bits.select(Math.max(0, offset));
+                if (index < 0 || count <= 0) return Collections.emptyList();
+                List<Button> list = new ArrayList<>(count);
+                synchronized (buttons) {
+                    while (index >= 0 && index < buttons.size() && list.size() < count) {
+                        list.add(buttons.get(index));
+                        index = bits.nextSetBit(index + 1);
+                    }
+                }
+                return list;
+            }
+
+            @Override
+            public long getVersion() {
+                return result.version;
+            }
+        };
+    }
+
+    /**
+     * Clears the filters, the page number mappings and the cached pages for all users.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        this.filterMap.clear();
+    }
+
+    private static final class FilterState {
+        private final Map<String, Set<Object>> filters = new HashMap<>();
+        private FilterResult result;
+    }
+
+    private static final class FilterResult {
+        private final RankSelectBitSet bits;
+        private final long catalogVersion;
+        private final long version;
+
+        private FilterResult(RankSelectBitSet bits, long catalogVersion, long version) {
+            this.bits = bits;
+            this.catalogVersion = catalogVersion;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.projectunified.craftux.mask;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A sorted skip list where every link stores the amount of elements it skips,
+ * so elements can be inserted, removed and located by rank in logarithmic time.
+ * The comparator must be a total order: two elements are the same element if they compare as equal.
+ * This class is not thread-safe.
+ *
+ * @param <T> the element type
+ */
+final class IndexedSkipList<T> {
+    private static final int MAX_LEVEL = 32;
+    private static final int LEVEL_PROBABILITY = 4;
+    private final Comparator<? super T> comparator;
+    private final Node<T> head = new Node<>(null, MAX_LEVEL);
+    private int level = 1;
+    private int size = 0;
+
+    IndexedSkipList(@NotNull Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    private static int randomLevel() {
+        int level = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (level < MAX_LEVEL && random.nextInt(LEVEL_PROBABILITY) == 0) {
+            level++;
+        }
+        return level;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+        size = 0;
+    }
+
+    /**
+     * Insert the element if there is no element that compares as equal to it
+     *
+     * @param value the element
+     * @return the rank (0-based index) of the inserted element, or -1 if an equal element is already in the list
+     */
+    int add(@NotNull T value) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<T>[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node<T> node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && comparator.compare(node.next[i].value, value) < 0) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        Node<T> existing = node.next[0];
+        if (existing != null && comparator.compare(existing.value, value) == 0) {
+            return -1;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = newLevel;
+        }
+
+        Node<T> newNode = new Node<>(value, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            newNode.next[i] = update[i].next[i];
+            update[i].next[i] = newNode;
+            newNode.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        size++;
+        return rank[0];
+    }
+
+    /**
+     * Remove the element
+     *
+     * @param value the element
+     * @return the rank (0-based index) of the removed element, or -1 if the element is not found
+     */
+    int remove(@NotNull T value) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<T>[] update = new Node[MAX_LEVEL];
+        int rank = 0;
+
+        Node<T> node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && comparator.compare(node.next[i].value, value) < 0) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        Node<T> target = node.next[0];
+        if (target == null || comparator.compare(target.value, value) != 0) {
+            return -1;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+
+        size--;
+        return rank;
+    }
+
+    /**
+     * Get the rank of the element
+     *
+     * @param value the element
+     * @return the rank (0-based index), or -1 if the element is not found
+     */
+    int indexOf(@NotNull T value) {
+        int rank = 0;
+        Node<T> node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && comparator.compare(node.next[i].value, value) <= 0) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+            if (node != head && comparator.compare(node.value, value) == 0) {
+                return rank - 1;
+            }
+        }
+        return -1;
+    }
+
+    private @Nullable Node<T> getNode(int index) {
+        if (index < 0 || index >= size) return null;
+        int traversed = 0;
+        Node<T> node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.span[i] <= index + 1) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+            if (traversed == index + 1) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the element at the rank
+     *
+     * @param index the rank (0-based index)
+     * @return the element, or null if the index is out of range
+     */
+    @Nullable T get(int index) {
+        Node<T> node = getNode(index);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Get the elements in the range of ranks
+     *
+     * @param offset the rank of the first element
+     * @param count  the maximum amount of elements
+     * @return the elements
+     */
+    @NotNull List<T> range(int offset, int count) {
+        List<T> list = new ArrayList<>(Math.max(0, Math.min(count, size - offset)));
+        Node<T> node = getNode(Math.max(0, offset));
+        while (node != null && list.size() < count) {
+            list.add(node.value);
+            node = node.next[0];
+        }
+        return list;
+    }
+
+    private static final class Node<T> {
+        private final T value;
+        private final Node<T>[] next;
+        private final int[] span;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Node(T value, int level) {
+            this.value = value;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
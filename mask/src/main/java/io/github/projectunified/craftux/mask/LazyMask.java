@@ -0,0 +1,236 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Element;
+import io.github.projectunified.craftux.common.Mask;
+import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * A mask that defers the initialization of its child mask until it is rendered for the first time.
+ * Useful for tabs and pages that a player may never open, so that the startup cost only scales with what is actually used.
+ * The child can optionally be stopped again after being inactive for some time:
+ * it is released when {@link #stopIfIdle()} is called, or automatically on the release scheduler once every viewer is suspended for the idle time.
+ * The mask does not create any thread by itself, so the release scheduler is owned and shut down by the caller.
+ * The child is never stopped while it is being rendered.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * ListMask tabs = new ListMask();
+ * tabs.add(new LazyMask(shopTabMask), new LazyMask(warpTabMask));
+ * tabs.init(); // The tab masks are not initialized yet
+ *
+ * LazyMask lazyMask = new LazyMask(leaderboardMask);
+ * lazyMask.setIdleMillis(60000); // Stop the child 1 minute after the last viewer closes the GUI
+ * lazyMask.setReleaseScheduler(pluginScheduledExecutor); // Shut down by the plugin on disable
+ *
+ * Bukkit.getScheduler().runTaskTimer(plugin, lazyMask::stopIfIdle, 1200, 1200); // Or check it with the platform scheduler
+ * }</pre>
+ */
+public class LazyMask implements Element, Mask, TimedElement {
+    private final Mask mask;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<UUID> viewers = ConcurrentHashMap.newKeySet();
+    private volatile boolean initialized = false;
+    private volatile long lastAccessMillis = -1;
+    private volatile long idleMillis = -1;
+    private volatile @Nullable ScheduledExecutorService releaseScheduler = null;
+    private volatile @Nullable ScheduledFuture<?> releaseFuture = null;
+
+    /**
+     * Create a new mask
+     *
+     * @param mask the child mask
+     */
+    public LazyMask(@NotNull Mask mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Get the child mask
+     *
+     * @return the child mask
+     */
+    @NotNull
+    public Mask getMask() {
+        return mask;
+    }
+
+    /**
+     * Set the time the child mask can be inactive before it is stopped by {@link #stopIfIdle()}
+     *
+     * @param idleMillis the idle time in milliseconds, or a non-positive value to never stop the child mask
+     */
+    public void setIdleMillis(long idleMillis) {
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Set the scheduler to stop the child mask automatically when no unique id has viewed it for the idle time.
+     * The scheduler is not shut down by this mask.
+     *
+     * @param releaseScheduler the scheduler, or null to only stop the child mask when {@link #stopIfIdle()} is called
+     */
+    public void setReleaseScheduler(@Nullable ScheduledExecutorService releaseScheduler) {
+        this.releaseScheduler = releaseScheduler;
+        if (releaseScheduler == null) {
+            cancelRelease();
+        }
+    }
+
+    /**
+     * Check if the child mask is initialized
+     *
+     * @return true if it is
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Initialize the child mask if it is not initialized
+     */
+    public void initIfNeeded() {
+        if (initialized) return;
+        lock.writeLock().lock();
+        try {
+            if (initialized) return;
+            Element.handleIfElement(mask, Element::init);
+            initialized = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void scheduleRelease() {
+        long delay = idleMillis;
+        ScheduledExecutorService scheduler = releaseScheduler;
+        if (scheduler == null || delay <= 0 || !initialized || !viewers.isEmpty()) return;
+        cancelRelease();
+        releaseFuture = scheduler.schedule(() -> {
+            if (viewers.isEmpty()) {
+                stopIfIdle();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelRelease() {
+        ScheduledFuture<?> future = releaseFuture;
+        if (future != null) {
+            future.cancel(false);
+            releaseFuture = null;
+        }
+    }
+
+    /**
+     * Stop the child mask if it is inactive for longer than the idle time
+     *
+     * @param currentMillis the current time in milliseconds
+     * @return true if the child mask is stopped
+     */
+    public boolean stopIfIdle(long currentMillis) {
+        if (idleMillis <= 0 || !initialized) return false;
+        lock.writeLock().lock();
+        try {
+            if (!initialized || currentMillis - lastAccessMillis < idleMillis) return false;
+            Element.handleIfElement(mask, Element::stop);
+            initialized = false;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stop the child mask if it is inactive for longer than the idle time
+     *
+     * @return true if the child mask is stopped
+     */
+    public boolean stopIfIdle() {
+        return stopIfIdle(System.currentTimeMillis());
+    }
+
+    /**
+     * Does nothing. The child mask is initialized when it is rendered for the first time.
+     */
+    @Override
+    public void init() {
+        // EMPTY
+    }
+
+    /**
+     * Does nothing. The child mask is initialized when it is rendered for the first time.
+     *
+     * @return a completed future
+     */
+    @Override
+    public CompletableFuture<Void> initAsync() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void stop() {
+        cancelRelease();
+        lock.writeLock().lock();
+        try {
+            viewers.clear();
+            if (!initialized) return;
+            Element.handleIfElement(mask, Element::stop);
+            initialized = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void suspend(UUID uuid) {
+        lastAccessMillis = System.currentTimeMillis();
+        if (initialized) {
+            Element.handleIfElement(mask, element -> element.suspend(uuid));
+        }
+        if (viewers.remove(uuid)) {
+            scheduleRelease();
+        }
+    }
+
+    @Override
+    public void resume(UUID uuid) {
+        viewers.add(uuid);
+        cancelRelease();
+        if (initialized) {
+            Element.handleIfElement(mask, element -> element.resume(uuid));
+        }
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        return initialized ? TimedElement.getNextChangeMillis(mask, uuid, currentMillis) : TimedElement.NEVER;
+    }
+
+    @Override
+    public @Nullable Map<Position, Consumer<ActionItem>> apply(@NotNull UUID uuid) {
+        viewers.add(uuid);
+        while (true) {
+            lastAccessMillis = System.currentTimeMillis();
+            lock.readLock().lock();
+            try {
+                if (initialized) {
+                    return mask.apply(uuid);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            initIfNeeded();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Element;
+import io.github.projectunified.craftux.common.Mask;
+import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A mask that displays the top entries of a leaderboard which is maintained incrementally from score updates.
+ * The scores are kept in an indexed skip list, so a score update and a rank lookup cost O(log n).
+ * A score update only marks the slots whose entries are shifted as dirty,
+ * and the buttons of the dirty slots are created again on the next render.
+ * Each viewer keeps the version of the leaderboard it last rendered, so every viewer can check if it needs a refresh.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * LeaderboardMask<UUID> leaderboardMask = new LeaderboardMask<>(
+ *     uuid -> MaskUtils.generateAreaPositions(Position.of(0, 0), Position.of(8, 0)),
+ *     9,
+ *     (rank, entry) -> new SimpleButton("#" + (rank + 1) + " " + getName(entry.getKey()) + ": " + entry.getScore())
+ * );
+ * leaderboardMask.updateScore(playerUUID, 1500); // On every score change
+ * int position = leaderboardMask.getRank(playerUUID); // For the "your position" button
+ * if (leaderboardMask.hasDirtySlots(viewerUUID)) ui.update(); // In the refresh task of each viewer
+ * }</pre>
+ *
+ * @param <K> the key type of the entries
+ */
+public class LeaderboardMask<K> implements Element, Mask, TimedElement {
+    private final Function<UUID, List<Position>> maskPositionFunction;
+    private final int topSize;
+    private final BiFunction<Integer, Entry<K>, Button> buttonFunction;
+    private final Map<K, Entry<K>> entryMap = new HashMap<>();
+    private final IndexedSkipList<Entry<K>> ranking = new IndexedSkipList<>(
+            Comparator.<Entry<K>>comparingDouble(entry -> entry.score).reversed().thenComparingLong(entry -> entry.sequence)
+    );
+    private final Button[] slotButtons;
+    private final BitSet dirtySlots = new BitSet();
+    private final Map<UUID, Long> renderedVersionMap = new ConcurrentHashMap<>();
+    private Button emptyButton = (uuid, actionItem) -> false;
+    private long sequence = 0;
+    private long version = 0;
+
+    /**
+     * Create a new mask
+     *
+     * @param maskPositionFunction the mask position function. The first position displays the first rank
+     * @param topSize              the amount of top entries to display
+     * @param buttonFunction       the function to create the button from the rank (0-based) and the entry
+     */
+    public LeaderboardMask(@NotNull Function<UUID, List<Position>> maskPositionFunction, int topSize, @NotNull BiFunction<Integer, Entry<K>, Button> buttonFunction) {
+        if (topSize <= 0) {
+            throw new IllegalArgumentException("Top size must be positive");
+        }
+        this.maskPositionFunction = maskPositionFunction;
+        this.topSize = topSize;
+        this.buttonFunction = buttonFunction;
+        this.slotButtons = new Button[topSize];
+    }
+
+    /**
+     * Get the mask position function
+     *
+     * @return the mask position function
+     */
+    @NotNull
+    public Function<UUID, List<Position>> getMaskPositionFunction() {
+        return maskPositionFunction;
+    }
+
+    /**
+     * Set the button displayed in the slots without an entry
+     *
+     * @param emptyButton the button
+     */
+    public void setEmptyButton(@NotNull Button emptyButton) {
+        this.emptyButton = emptyButton;
+    }
+
+    private void markDirty(int fromRank, int toRank) {
+        int from = Math.max(0, fromRank);
+        int to = Math.min(topSize - 1, toRank);
+        if (from <= to) {
+            dirtySlots.set(from, to + 1);
+            version++;
+        }
+    }
+
+    /**
+     * Update the score of the entry. The entry is added if it is not in the leaderboard.
+     *
+     * @param key   the key of the entry
+     * @param score the score
+     */
+    public void updateScore(@NotNull K key, double score) {
+        synchronized (ranking) {
+            Entry<K> oldEntry = entryMap.get(key);
+            if (oldEntry != null && oldEntry.score == score) return;
+
+            int oldRank = oldEntry == null ? -1 : ranking.remove(oldEntry);
+            Entry<K> newEntry = new Entry<>(key, score, oldEntry == null ? sequence++ : oldEntry.sequence);
+            int newRank = ranking.add(newEntry);
+            entryMap.put(key, newEntry);
+
+            if (oldRank < 0) {
+                markDirty(newRank, topSize - 1);
+            } else {
+                markDirty(Math.min(oldRank, newRank), Math.max(oldRank, newRank));
+            }
+        }
+    }
+
+    /**
+     * Remove the entry from the leaderboard
+     *
+     * @param key the key of the entry
+     * @return true if the entry was removed
+     */
+    public boolean removeEntry(@NotNull K key) {
+        synchronized (ranking) {
+            Entry<K> entry = entryMap.remove(key);
+            if (entry == null) return false;
+            int rank = ranking.remove(entry);
+            markDirty(rank, topSize - 1);
+            return true;
+        }
+    }
+
+    /**
+     * Remove all the entries from the leaderboard
+     */
+    public void clear() {
+        synchronized (ranking) {
+            entryMap.clear();
+            ranking.clear();
+            markDirty(0, topSize - 1);
+        }
+    }
+
+    /**
+     * Get the rank of the entry
+     *
+     * @param key the key of the entry
+     * @return the rank (0-based), or -1 if the entry is not in the leaderboard
+     */
+    public int getRank(@NotNull K key) {
+        synchronized (ranking) {
+            Entry<K> entry = entryMap.get(key);
+            return entry == null ? -1 : ranking.indexOf(entry);
+        }
+    }
+
+    /**
+     * Get the entry of the key
+     *
+     * @param key the key of the entry
+     * @return the entry, or null if the entry is not in the leaderboard
+     */
+    public @Nullable Entry<K> getEntry(@NotNull K key) {
+        synchronized (ranking) {
+            return entryMap.get(key);
+        }
+    }
+
+    /**
+     * Get the entry at the rank
+     *
+     * @param rank the rank (0-based)
+     * @return the entry, or null if there is no entry at the rank
+     */
+    public @Nullable Entry<K> getEntry(int rank) {
+        synchronized (ranking) {
+            return ranking.get(rank);
+        }
+    }
+
+    /**
+     * Get the amount of entries in the leaderboard
+     *
+     * @return the amount of entries
+     */
+    public int size() {
+        synchronized (ranking) {
+            return ranking.size();
+        }
+    }
+
+    /**
+     * Check if any displayed slot changed since the last render for the unique id
+     *
+     * @param uuid the unique id
+     * @return true if it did, or if the unique id has not rendered the mask
+     */
+    public boolean hasDirtySlots(@NotNull UUID uuid) {
+        Long renderedVersion = renderedVersionMap.get(uuid);
+        if (renderedVersion == null) return true;
+        synchronized (ranking) {
+            return renderedVersion != version;
+        }
+    }
+
+    /**
+     * Remove the rendered version of the unique id
+     *
+     * @param uuid the unique id
+     */
+    @Override
+    public void suspend(UUID uuid) {
+        renderedVersionMap.remove(uuid);
+    }
+
+    /**
+     * Clear the rendered versions of all the unique ids
+     */
+    @Override
+    public void stop() {
+        renderedVersionMap.clear();
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        Button[] buttons;
+        synchronized (ranking) {
+            buttons = slotButtons.clone();
+        }
+        int size = Math.min(this.maskPositionFunction.apply(uuid).size(), topSize);
+        long next = TimedElement.NEVER;
+        boolean hasEmptySlot = false;
+        for (int i = 0; i < size; i++) {
+            if (buttons[i] == null) {
+                hasEmptySlot = true;
+            } else {
+                next = Math.min(next, TimedElement.getNextChangeMillis(buttons[i], uuid, currentMillis));
+            }
+        }
+        if (hasEmptySlot) {
+            next = Math.min(next, TimedElement.getNextChangeMillis(emptyButton, uuid, currentMillis));
+        }
+        return next;
+    }
+
+    @Override
+    public @NotNull Map<Position, Consumer<ActionItem>> apply(@NotNull UUID uuid) {
+        Button[] buttons;
+        long renderedVersion;
+        synchronized (ranking) {
+            if (!dirtySlots.isEmpty()) {
+                int from = dirtySlots.nextSetBit(0);
+                int to = dirtySlots.length();
+                List<Entry<K>> entries = ranking.range(from, to - from);
+                for (int slot = from; slot >= 0 && slot < to; slot = dirtySlots.nextSetBit(slot + 1)) {
+                    int index = slot - from;
+                    slotButtons[slot] = index < entries.size() ? buttonFunction.apply(slot, entries.get(index)) : null;
+                }
+                dirtySlots.clear();
+            }
+            buttons = slotButtons.clone();
+            renderedVersion = version;
+        }
+        renderedVersionMap.put(uuid, renderedVersion);
+
+        List<Position> positions = this.maskPositionFunction.apply(uuid);
+        int size = Math.min(positions.size(), topSize);
+        Map<Position, Consumer<ActionItem>> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Button button = buttons[i];
+            map.put(positions.get(i), (button == null ? emptyButton : button).apply(uuid));
+        }
+        return map;
+    }
+
+    /**
+     * An entry of the leaderboard
+     *
+     * @param <K> the key type
+     */
+    public static final class Entry<K> {
+        private final K key;
+        private final double score;
+        private final long sequence;
+
+        private Entry(K key, double score, long sequence) {
+            this.key = key;
+            this.score = score;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Get the key
+         *
+         * @return the key
+         */
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * Get the score
+         *
+         * @return the score
+         */
+        public double getScore() {
+            return score;
+        }
+    }
+}
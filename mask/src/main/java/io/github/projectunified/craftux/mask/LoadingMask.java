@@ -0,0 +1,233 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Element;
+import io.github.projectunified.craftux.common.Mask;
+import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * A mask that initializes its child mask asynchronously and displays a placeholder mask until the child mask is ready.
+ * Useful for masks that preload data (e.g. shop catalogs, leaderboards) without blocking the thread that builds the GUI.
+ * The initialization of the child mask runs on the executor, so children that only implement the blocking {@link Element#init()} are loaded in the background too.
+ * If the initialization fails, the error mask is displayed instead.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * LoadingMask loadingMask = new LoadingMask(catalogMask);
+ * loadingMask.setPlaceholderMask(new SingleMask(Position.of(4, 2), new SimpleButton(new ItemStack(Material.CLOCK))));
+ * loadingMask.setErrorMask(new SingleMask(Position.of(4, 2), new SimpleButton(new ItemStack(Material.BARRIER))));
+ * loadingMask.init(); // Returns immediately, the catalog is loaded in the background
+ * loadingMask.getReadyFuture().whenComplete((result, error) -> Bukkit.getScheduler().runTask(plugin, ui::update)); // Update on the main thread
+ * }</pre>
+ */
+public class LoadingMask implements Element, Mask, TimedElement {
+    private final Mask mask;
+    private final Executor executor;
+    private Mask placeholderMask = uuid -> null;
+    private Mask errorMask = uuid -> null;
+    private volatile @Nullable CompletableFuture<Void> readyFuture;
+    private volatile @Nullable CompletableFuture<Void> childFuture;
+
+    /**
+     * Create a new mask
+     *
+     * @param mask     the child mask
+     * @param executor the executor to initialize the child mask on
+     */
+    public LoadingMask(@NotNull Mask mask, @NotNull Executor executor) {
+        this.mask = mask;
+        this.executor = executor;
+    }
+
+    /**
+     * Create a new mask that initializes the child mask on the common pool
+     *
+     * @param mask the child mask
+     */
+    public LoadingMask(@NotNull Mask mask) {
+        this(mask, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Get the child mask
+     *
+     * @return the child mask
+     */
+    @NotNull
+    public Mask getMask() {
+        return mask;
+    }
+
+    /**
+     * Get the placeholder mask
+     *
+     * @return the placeholder mask
+     */
+    @NotNull
+    public Mask getPlaceholderMask() {
+        return placeholderMask;
+    }
+
+    /**
+     * Set the placeholder mask, which is displayed until the child mask is ready
+     *
+     * @param placeholderMask the placeholder mask
+     */
+    public void setPlaceholderMask(@NotNull Mask placeholderMask) {
+        this.placeholderMask = placeholderMask;
+    }
+
+    /**
+     * Get the error mask
+     *
+     * @return the error mask
+     */
+    @NotNull
+    public Mask getErrorMask() {
+        return errorMask;
+    }
+
+    /**
+     * Set the error mask, which is displayed if the child mask fails to initialize
+     *
+     * @param errorMask the error mask
+     */
+    public void setErrorMask(@NotNull Mask errorMask) {
+        this.errorMask = errorMask;
+    }
+
+    /**
+     * Get the future that completes when the child mask is ready
+     *
+     * @return the future, or null if the mask is not initialized. It completes exceptionally if the child mask fails to initialize
+     */
+    @Nullable
+    public CompletableFuture<Void> getReadyFuture() {
+        return readyFuture;
+    }
+
+    /**
+     * Check if the child mask is ready
+     *
+     * @return true if it is
+     */
+    public boolean isReady() {
+        CompletableFuture<Void> future = readyFuture;
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    /**
+     * Get the error of the initialization of the child mask
+     *
+     * @return the error, or null if the child mask is not failed
+     */
+    @Nullable
+    public Throwable getError() {
+        CompletableFuture<Void> future = readyFuture;
+        if (future == null || !future.isCompletedExceptionally() || future.isCancelled()) return null;
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    /**
+     * Start initializing the child mask on the executor. This method does not wait for the child mask.
+     */
+    @Override
+    public void init() {
+        initAsync();
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> initAsync() {
+        CompletableFuture<Void> future = readyFuture;
+        if (future == null) {
+            CompletableFuture<Void> ready = new CompletableFuture<>();
+            readyFuture = ready;
+            future = ready;
+            executor.execute(() -> {
+                if (ready.isDone()) return;
+                CompletableFuture<Void> child;
+                try {
+                    child = Element.initAsyncIfElement(mask);
+                } catch (Throwable throwable) {
+                    ready.completeExceptionally(throwable);
+                    return;
+                }
+                childFuture = child;
+                child.whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        ready.completeExceptionally(throwable);
+                    } else {
+                        ready.complete(null);
+                    }
+                });
+                if (ready.isCancelled()) {
+                    child.cancel(false);
+                }
+            });
+        }
+        return future;
+    }
+
+    @Override
+    public synchronized void stop() {
+        CompletableFuture<Void> future = readyFuture;
+        if (future != null) {
+            future.cancel(false);
+            readyFuture = null;
+        }
+        CompletableFuture<Void> child = childFuture;
+        if (child != null) {
+            child.cancel(false);
+            childFuture = null;
+        }
+        Element.handleIfElement(mask, Element::stop);
+    }
+
+    @Override
+    public void suspend(UUID uuid) {
+        Element.handleIfElement(mask, element -> element.suspend(uuid));
+        Element.handleIfElement(placeholderMask, element -> element.suspend(uuid));
+        Element.handleIfElement(errorMask, element -> element.suspend(uuid));
+    }
+
+    @Override
+    public void resume(UUID uuid) {
+        Element.handleIfElement(mask, element -> element.resume(uuid));
+        Element.handleIfElement(placeholderMask, element -> element.resume(uuid));
+        Element.handleIfElement(errorMask, element -> element.resume(uuid));
+    }
+
+    private Mask getCurrentMask() {
+        CompletableFuture<Void> future = readyFuture;
+        if (future == null || !future.isDone()) {
+            return placeholderMask;
+        }
+        return future.isCompletedExceptionally() ? errorMask : mask;
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        return TimedElement.getNextChangeMillis(getCurrentMask(), uuid, currentMillis);
+    }
+
+    @Override
+    public @Nullable Map<Position, Consumer<ActionItem>> apply(@NotNull UUID uuid) {
+        return getCurrentMask().apply(uuid);
+    }
+}
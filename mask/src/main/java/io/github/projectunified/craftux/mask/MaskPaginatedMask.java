@@ -3,6 +3,7 @@ package io.github.projectunified.craftux.mask;
 import io.github.projectunified.craftux.common.ActionItem;
 import io.github.projectunified.craftux.common.Mask;
 import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -14,6 +15,7 @@ import java.util.function.Consumer;
 /**
  * An abstract mask that displays one mask at a time from a list, allowing pagination through multiple masks.
  * Each page shows the actions from a single mask in the list.
+ * Override {@link #getDataVersion(UUID)} to cache the item maps of the masks in the page cache.
  *
  * <p>Example usage:</p>
  * <pre>{@code
@@ -26,7 +28,15 @@ import java.util.function.Consumer;
  *             new SingleMask(Position.of(0, 0), new SimpleButton(new ItemStack(Material.COOKED_BEEF)))
  *         );
  *     }
+ *
+ *     @Override
+ *     protected long getDataVersion(UUID uuid) {
+ *         return menuConfig.getReloadCount(); // The masks only change when the config is reloaded
+ *     }
  * }
+ *
+ * MyMaskPaginatedMask mask = new MyMaskPaginatedMask();
+ * mask.setPageCache(new PageCache(10000));
  * }</pre>
  */
 public abstract class MaskPaginatedMask extends PaginatedMask {
@@ -50,17 +60,39 @@ public abstract class MaskPaginatedMask extends PaginatedMask {
         return masks.get(pageNumber).apply(uuid);
     }
 
+    /**
+     * Get the version of the mask displayed in the page for the unique id.
+     * It's the version of {@link #getDataVersion(UUID)}, unless the mask of the page changes by itself
+     * (e.g. an animated mask), in which case the page is not cached.
+     *
+     * @param uuid       the unique id
+     * @param pageNumber the page number
+     * @return the data version, or {@link #UNVERSIONED} if the page should not be cached
+     */
     @Override
-    public int getPageAmount(@NotNull UUID uuid) {
+    protected long getDataVersion(@NotNull UUID uuid, int pageNumber) {
+        long version = getDataVersion(uuid);
+        if (version == UNVERSIONED) return UNVERSIONED;
         List<Mask> masks = getMasks(uuid);
-        return masks.size();
+        if (masks.isEmpty()) return UNVERSIONED;
+        Mask mask = masks.get(getExactPage(pageNumber, masks.size()));
+        if (TimedElement.getNextChangeMillis(mask, uuid, System.currentTimeMillis()) != TimedElement.NEVER) {
+            return UNVERSIONED;
+        }
+        return version;
     }
 
-    /**
-     * Clears the page number mappings for all users.
-     */
     @Override
-    public void stop() {
-        this.pageNumberMap.clear();
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        List<Mask> masks = getMasks(uuid);
+        if (masks.isEmpty()) return TimedElement.NEVER;
+        int pageNumber = getExactPage(getPage(uuid), masks.size());
+        return TimedElement.getNextChangeMillis(masks.get(pageNumber), uuid, currentMillis);
+    }
+
+    @Override
+    public int getPageAmount(@NotNull UUID uuid) {
+        List<Mask> masks = getMasks(uuid);
+        return masks.size();
     }
 }
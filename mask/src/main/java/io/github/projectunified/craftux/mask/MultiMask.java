@@ -2,8 +2,11 @@ package io.github.projectunified.craftux.mask;
 
 import io.github.projectunified.craftux.common.Element;
 import io.github.projectunified.craftux.common.Mask;
+import io.github.projectunified.craftux.common.TimedElement;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A base class for masks that manage multiple child elements.
@@ -18,7 +21,7 @@ import java.util.*;
  *
  * @param <T> the type of the child element
  */
-public abstract class MultiMask<T> implements Element, Mask {
+public abstract class MultiMask<T> implements Element, Mask, TimedElement {
     protected final List<T> elements = new ArrayList<>();
 
     /**
@@ -55,8 +58,28 @@ public abstract class MultiMask<T> implements Element, Mask {
         Element.handleIfElement(this.elements, Element::init);
     }
 
+    @Override
+    public CompletableFuture<Void> initAsync() {
+        return Element.initAsyncIfElement(this.elements);
+    }
+
     @Override
     public void stop() {
         Element.handleIfElement(this.elements, Element::stop);
     }
+
+    @Override
+    public void suspend(UUID uuid) {
+        Element.handleIfElement(this.elements, element -> element.suspend(uuid));
+    }
+
+    @Override
+    public void resume(UUID uuid) {
+        Element.handleIfElement(this.elements, element -> element.resume(uuid));
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        return TimedElement.getNextChangeMillis(this.elements, uuid, currentMillis);
+    }
 }
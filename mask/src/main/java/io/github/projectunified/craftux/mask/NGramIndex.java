@@ -0,0 +1,144 @@
+package io.github.projectunified.craftux.mask;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An in-memory n-gram index of search keys, used by {@link SearchPaginatedMask}.
+ * Every key is indexed by all of its substrings of length 1 to {@link #GRAM_LENGTH},
+ * so a query is resolved from the posting lists of its n-grams instead of scanning all the keys.
+ */
+final class NGramIndex {
+    static final int GRAM_LENGTH = 3;
+    private final List<String> keys = new ArrayList<>();
+    private final Map<String, IntList> postingMap = new HashMap<>();
+
+    static @NotNull String normalize(@NotNull String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    void clear() {
+        keys.clear();
+        postingMap.clear();
+    }
+
+    /**
+     * Add the key to the index
+     *
+     * @param key the key
+     * @return the id of the key
+     */
+    int add(@NotNull String key) {
+        String normalizedKey = normalize(key);
+        int id = keys.size();
+        keys.add(normalizedKey);
+
+        Set<String> grams = new HashSet<>();
+        int length = normalizedKey.length();
+        for (int start = 0; start < length; start++) {
+            int maxEnd = Math.min(length, start + GRAM_LENGTH);
+            for (int end = start + 1; end <= maxEnd; end++) {
+                grams.add(normalizedKey.substring(start, end));
+            }
+        }
+        for (String gram : grams) {
+            postingMap.computeIfAbsent(gram, g -> new IntList()).add(id);
+        }
+        return id;
+    }
+
+    /**
+     * Search the ids of the keys containing the query
+     *
+     * @param query      the normalized query
+     * @param candidates the sorted ids known to contain a substring of the query, or null to use the whole index
+     * @return the sorted ids, or null if the query is empty (all the keys match)
+     */
+    int @Nullable [] search(@NotNull String query, int @Nullable [] candidates) {
+        if (query.isEmpty()) return null;
+
+        if (query.length() <= GRAM_LENGTH) {
+            IntList posting = postingMap.get(query);
+            if (posting == null) return new int[0];
+            if (candidates != null && candidates.length < posting.size) {
+                return filter(candidates, query);
+            }
+            return posting.toArray();
+        }
+
+        List<IntList> postings = new ArrayList<>();
+        for (int start = 0; start + GRAM_LENGTH <= query.length(); start++) {
+            IntList posting = postingMap.get(query.substring(start, start + GRAM_LENGTH));
+            if (posting == null) return new int[0];
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(posting -> posting.size));
+
+        if (candidates != null && candidates.length <= postings.get(0).size) {
+            return filter(candidates, query);
+        }
+
+        int[] result = postings.get(0).toArray();
+        int resultSize = result.length;
+        for (int i = 1; i < postings.size() && resultSize > 0; i++) {
+            resultSize = intersect(result, resultSize, postings.get(i));
+        }
+
+        int verifiedSize = 0;
+        for (int i = 0; i < resultSize; i++) {
+            int id = result[i];
+            if (keys.get(id).contains(query)) {
+                result[verifiedSize++] = id;
+            }
+        }
+        return Arrays.copyOf(result, verifiedSize);
+    }
+
+    private int[] filter(int[] candidates, String query) {
+        int[] result = new int[candidates.length];
+        int size = 0;
+        for (int id : candidates) {
+            if (keys.get(id).contains(query)) {
+                result[size++] = id;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int intersect(int[] result, int resultSize, IntList posting) {
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < resultSize && j < posting.size; i++) {
+            int id = result[i];
+            while (j < posting.size && posting.values[j] < id) {
+                j++;
+            }
+            if (j < posting.size && posting.values[j] == id) {
+                result[size++] = id;
+            }
+        }
+        return size;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Position;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A least-recently-used cache of the item maps of the pages of {@link PaginatedMask}.
+ * The pages are stored per viewer and keyed by the page number and the data version of the mask.
+ * The cache is bounded by the total amount of slots of all the stored pages, so a single cache can be shared by many masks.
+ * Note that it counts the slots, not the memory held by the buttons of the slots.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * PageCache pageCache = new PageCache(50000); // At most 50000 slots in total
+ * shopMask.setPageCache(pageCache);
+ * auctionMask.setPageCache(pageCache);
+ * }</pre>
+ */
+public class PageCache {
+    private final int maxSlots;
+    private final LinkedHashMap<Key, Map<Position, Consumer<ActionItem>>> pageMap = new LinkedHashMap<>(16, 0.75f, true);
+    private int slotCount = 0;
+
+    /**
+     * Create a new cache
+     *
+     * @param maxSlots the maximum amount of slots of all the stored pages
+     */
+    public PageCache(int maxSlots) {
+        if (maxSlots <= 0) {
+            throw new IllegalArgumentException("Max slots must be positive");
+        }
+        this.maxSlots = maxSlots;
+    }
+
+    /**
+     * Get the item map of the page
+     *
+     * @param owner   the mask that rendered the page
+     * @param uuid    the unique id
+     * @param page    the page number
+     * @param version the data version
+     * @return the item map, or null if it is not cached
+     */
+    public synchronized @Nullable Map<Position, Consumer<ActionItem>> get(@NotNull Object owner, @NotNull UUID uuid, int page, long version) {
+        return pageMap.get(new Key(owner, uuid, page, version));
+    }
+
+    /**
+     * Store the item map of the page. The least recently used pages are removed if the cache exceeds the maximum amount of slots.
+     *
+     * @param owner   the mask that rendered the page
+     * @param uuid    the unique id
+     * @param page    the page number
+     * @param version the data version
+     * @param items   the item map of the page
+     */
+    public synchronized void put(@NotNull Object owner, @NotNull UUID uuid, int page, long version, @NotNull Map<Position, Consumer<ActionItem>> items) {
+        if (items.size() > maxSlots) return;
+        Map<Position, Consumer<ActionItem>> previous = pageMap.put(new Key(owner, uuid, page, version), items);
+        if (previous != null) {
+            slotCount -= previous.size();
+        }
+        slotCount += items.size();
+
+        Iterator<Map<Position, Consumer<ActionItem>>> iterator = pageMap.values().iterator();
+        while (slotCount > maxSlots && iterator.hasNext()) {
+            slotCount -= iterator.next().size();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Remove the pages of the unique id rendered by the mask
+     *
+     * @param owner the mask that rendered the pages
+     * @param uuid  the unique id
+     */
+    public synchronized void invalidate(@NotNull Object owner, @NotNull UUID uuid) {
+        removeIf(key -> key.owner == owner && key.uuid.equals(uuid));
+    }
+
+    /**
+     * Remove the pages rendered by the mask
+     *
+     * @param owner the mask that rendered the pages
+     */
+    public synchronized void invalidate(@NotNull Object owner) {
+        removeIf(key -> key.owner == owner);
+    }
+
+    /**
+     * Remove all the pages
+     */
+    public synchronized void clear() {
+        pageMap.clear();
+        slotCount = 0;
+    }
+
+    /**
+     * Get the amount of slots of all the stored pages
+     *
+     * @return the amount of slots
+     */
+    public synchronized int getSlotCount() {
+        return slotCount;
+    }
+
+    private void removeIf(Predicate<Key> predicate) {
+        Iterator<Map.Entry<Key, Map<Position, Consumer<ActionItem>>>> iterator = pageMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Map<Position, Consumer<ActionItem>>> entry = iterator.next();
+            if (predicate.test(entry.getKey())) {
+                slotCount -= entry.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Key {
+        private final Object owner;
+        private final UUID uuid;
+        private final int page;
+        private final long version;
+
+        private Key(Object owner, UUID uuid, int page, long version) {
+            this.owner = owner;
+            this.uuid = uuid;
+            this.page = page;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return owner == key.owner && page == key.page && version == key.version && uuid.equals(key.uuid);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(owner), uuid, page, version);
+        }
+    }
+}
@@ -4,9 +4,11 @@ import io.github.projectunified.craftux.common.ActionItem;
 import io.github.projectunified.craftux.common.Element;
 import io.github.projectunified.craftux.common.Mask;
 import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,12 +29,18 @@ import java.util.function.Consumer;
  *
  * MyPaginatedMask mask = new MyPaginatedMask();
  * mask.setCycle(true); // Allow cycling through pages
+ * mask.setPageCache(new PageCache(10000)); // Reuse the item maps of the pages when flipping back
  * mask.nextPage(playerUUID);
  * }</pre>
  */
-public abstract class PaginatedMask implements Element, Mask {
+public abstract class PaginatedMask implements Element, Mask, TimedElement {
+    /**
+     * The data version of a page that does not track its changes. Such pages are not cached.
+     */
+    public static final long UNVERSIONED = -1;
     protected final Map<UUID, Integer> pageNumberMap = new ConcurrentHashMap<>();
     protected boolean cycle = false;
+    private @Nullable PageCache pageCache = null;
 
     /**
      * Generate the item map for the unique id
@@ -139,8 +147,103 @@ public abstract class PaginatedMask implements Element, Mask {
         this.cycle = cycle;
     }
 
+    /**
+     * Get the page cache
+     *
+     * @return the page cache, or null if the pages are not cached
+     */
+    public @Nullable PageCache getPageCache() {
+        return pageCache;
+    }
+
+    /**
+     * Set the page cache to store the item maps of the pages.
+     * A cached item map is reused until the data version of the page changes or the cache is invalidated,
+     * so the buttons in the page are not fetched again when the viewer flips back to it.
+     * Only the item map is cached: its consumers are still applied on every render,
+     * so the buttons keep layering on top of the default button and the animated buttons keep changing.
+     * Only the pages with a data version are cached, see {@link #getDataVersion(UUID, int)}.
+     *
+     * @param pageCache the page cache, or null to not cache the pages
+     */
+    public void setPageCache(@Nullable PageCache pageCache) {
+        PageCache previousCache = this.pageCache;
+        if (previousCache != null) {
+            previousCache.invalidate(this);
+        }
+        this.pageCache = pageCache;
+    }
+
+    /**
+     * Get the version of the data displayed for the unique id. The version is used as part of the key of the page cache.
+     * Override this to cache the pages and make them expire when the data changes.
+     *
+     * @param uuid the unique id
+     * @return the data version, or {@link #UNVERSIONED} if the data does not track its changes
+     */
+    protected long getDataVersion(@NotNull UUID uuid) {
+        return UNVERSIONED;
+    }
+
+    /**
+     * Get the version of the data displayed in the page for the unique id.
+     * By default, it returns the version of {@link #getDataVersion(UUID)}.
+     * Override this if the pages change independently.
+     *
+     * @param uuid       the unique id
+     * @param pageNumber the page number
+     * @return the data version, or {@link #UNVERSIONED} if the data does not track its changes
+     */
+    protected long getDataVersion(@NotNull UUID uuid, int pageNumber) {
+        return getDataVersion(uuid);
+    }
+
+    /**
+     * Get the next change time of the page displayed for the unique id.
+     * By default, the page may change at any time, so it returns the current time to be rendered on every refresh.
+     * Override this to report the next change time of the buttons in the page.
+     *
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     * @return the next change time in milliseconds
+     */
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        return currentMillis;
+    }
+
+    /**
+     * Clears the page number mappings and the cached pages for all users.
+     */
+    @Override
+    public void stop() {
+        this.pageNumberMap.clear();
+        PageCache cache = this.pageCache;
+        if (cache != null) {
+            cache.invalidate(this);
+        }
+    }
+
     @Override
     public @Nullable Map<Position, Consumer<ActionItem>> apply(@NotNull UUID uuid) {
-        return getItemMap(uuid, this.getPage(uuid));
+        PageCache cache = this.pageCache;
+        int pageNumber = this.getPage(uuid);
+        if (cache == null) {
+            return getItemMap(uuid, pageNumber);
+        }
+
+        long version = getDataVersion(uuid, pageNumber);
+        if (version == UNVERSIONED) {
+            return getItemMap(uuid, pageNumber);
+        }
+
+        Map<Position, Consumer<ActionItem>> cachedItems = cache.get(this, uuid, pageNumber, version);
+        if (cachedItems == null) {
+            Map<Position, Consumer<ActionItem>> map = getItemMap(uuid, pageNumber);
+            if (map == null) return null;
+            cachedItems = new HashMap<>(map);
+            cache.put(this, uuid, pageNumber, version, cachedItems);
+        }
+        return new HashMap<>(cachedItems);
     }
 }
@@ -4,12 +4,14 @@ import io.github.projectunified.craftux.common.ActionItem;
 import io.github.projectunified.craftux.common.Element;
 import io.github.projectunified.craftux.common.Mask;
 import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
@@ -25,7 +27,7 @@ import java.util.function.Consumer;
  * Map<Position, Consumer<ActionItem>> actions = placeholderMask.apply(playerUUID);
  * }</pre>
  */
-public class PlaceholderMask implements Element, Mask {
+public class PlaceholderMask implements Element, Mask, TimedElement {
     protected final Map<UUID, Mask> userMasks = new ConcurrentHashMap<>();
     protected Mask defaultMask = context -> null;
 
@@ -34,12 +36,32 @@ public class PlaceholderMask implements Element, Mask {
         Element.handleIfElement(defaultMask, Element::init);
     }
 
+    @Override
+    public CompletableFuture<Void> initAsync() {
+        return Element.initAsyncIfElement(defaultMask);
+    }
+
     @Override
     public void stop() {
         Element.handleIfElement(defaultMask, Element::stop);
         this.userMasks.clear();
     }
 
+    @Override
+    public void suspend(UUID uuid) {
+        Element.handleIfElement(this.userMasks.getOrDefault(uuid, this.defaultMask), element -> element.suspend(uuid));
+    }
+
+    @Override
+    public void resume(UUID uuid) {
+        Element.handleIfElement(this.userMasks.getOrDefault(uuid, this.defaultMask), element -> element.resume(uuid));
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        return TimedElement.getNextChangeMillis(this.userMasks.getOrDefault(uuid, this.defaultMask), uuid, currentMillis);
+    }
+
     @Override
     public @Nullable Map<Position, Consumer<ActionItem>> apply(@NotNull UUID uuid) {
         return this.userMasks.getOrDefault(uuid, this.defaultMask).apply(uuid);
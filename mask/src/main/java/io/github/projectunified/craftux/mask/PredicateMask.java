@@ -4,11 +4,13 @@ import io.github.projectunified.craftux.common.ActionItem;
 import io.github.projectunified.craftux.common.Element;
 import io.github.projectunified.craftux.common.Mask;
 import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -25,7 +27,7 @@ import java.util.function.Predicate;
  * Map<Position, Consumer<ActionItem>> actions = predicateMask.apply(playerUUID);
  * }</pre>
  */
-public class PredicateMask implements Element, Mask {
+public class PredicateMask implements Element, Mask, TimedElement {
     private @Nullable Predicate<UUID> viewPredicate = null;
     private @Nullable Mask mask = uuid -> null;
     private @Nullable Mask fallbackMask = uuid -> null;
@@ -83,12 +85,35 @@ public class PredicateMask implements Element, Mask {
         Element.handleIfElement(fallbackMask, Element::init);
     }
 
+    @Override
+    public CompletableFuture<Void> initAsync() {
+        return CompletableFuture.allOf(Element.initAsyncIfElement(mask), Element.initAsyncIfElement(fallbackMask));
+    }
+
     @Override
     public void stop() {
         Element.handleIfElement(mask, Element::stop);
         Element.handleIfElement(fallbackMask, Element::stop);
     }
 
+    @Override
+    public void suspend(UUID uuid) {
+        Element.handleIfElement(mask, element -> element.suspend(uuid));
+        Element.handleIfElement(fallbackMask, element -> element.suspend(uuid));
+    }
+
+    @Override
+    public void resume(UUID uuid) {
+        Element.handleIfElement(mask, element -> element.resume(uuid));
+        Element.handleIfElement(fallbackMask, element -> element.resume(uuid));
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        Mask maskToUse = viewPredicate == null || viewPredicate.test(uuid) ? mask : fallbackMask;
+        return TimedElement.getNextChangeMillis(maskToUse, uuid, currentMillis);
+    }
+
     @Override
     public @Nullable Map<Position, Consumer<ActionItem>> apply(@NotNull UUID uuid) {
         Mask maskToUse = viewPredicate == null || viewPredicate.test(uuid) ? mask : fallbackMask;
@@ -0,0 +1,266 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.animation.AnimationClock;
+import io.github.projectunified.craftux.animation.TimelineMode;
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A mask whose buttons are computed from the position and the animation step, instead of a list of frames.
+ * The child buttons are the palette, and the pattern function selects the palette index of every position at every step,
+ * so a large sweeping effect only keeps the palette in memory.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * ProceduralAnimatedMask rainbowMask = new ProceduralAnimatedMask(
+ *     uuid -> MaskUtils.generateAreaPositions(Position.of(0, 0), Position.of(8, 5)),
+ *     (x, y, step) -> (int) ((x + y + step) % 6) // A diagonal wave
+ * );
+ * rainbowMask.add(redButton, orangeButton, yellowButton, greenButton, blueButton, purpleButton);
+ * rainbowMask.setStepMillis(100);
+ * }</pre>
+ */
+public class ProceduralAnimatedMask extends MultiMask<Button> {
+    private static final int MAX_LOOKAHEAD_STEPS = 64;
+    private final Function<UUID, List<Position>> maskPositionFunction;
+    private final PatternFunction patternFunction;
+    private final Map<UUID, Long> startMap = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> pausedMap = new ConcurrentHashMap<>();
+    private final AtomicLong sharedStartMillis = new AtomicLong(-1);
+    private long stepMillis = 50;
+    private AnimationClock clock = AnimationClock.SYSTEM;
+    private TimelineMode timelineMode = TimelineMode.PER_VIEWER;
+
+    /**
+     * Create a new mask
+     *
+     * @param maskPositionFunction the mask position function
+     * @param patternFunction      the function to select the palette index of the position at the step
+     */
+    public ProceduralAnimatedMask(@NotNull Function<UUID, List<Position>> maskPositionFunction, @NotNull PatternFunction patternFunction) {
+        this.maskPositionFunction = maskPositionFunction;
+        this.patternFunction = patternFunction;
+    }
+
+    /**
+     * Get the mask position function
+     *
+     * @return the mask position function
+     */
+    @NotNull
+    public Function<UUID, List<Position>> getMaskPositionFunction() {
+        return maskPositionFunction;
+    }
+
+    /**
+     * Set the duration of a step
+     *
+     * @param stepMillis the duration in milliseconds
+     * @throws IllegalArgumentException if stepMillis is not positive
+     */
+    public void setStepMillis(long stepMillis) {
+        if (stepMillis <= 0) {
+            throw new IllegalArgumentException("Step must be positive");
+        }
+        this.stepMillis = stepMillis;
+    }
+
+    /**
+     * Set the clock of the animation
+     *
+     * @param clock the clock
+     */
+    public void setClock(@NotNull AnimationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Set the timeline mode of the animation.
+     * {@link TimelineMode#SYNCHRONIZED} shares one start time between the unique ids,
+     * the other modes keep a start time for every unique id.
+     *
+     * @param timelineMode the timeline mode
+     */
+    public void setTimelineMode(@NotNull TimelineMode timelineMode) {
+        this.timelineMode = timelineMode;
+    }
+
+    /**
+     * Reset the animation for the unique id.
+     * In {@link TimelineMode#SYNCHRONIZED} mode, the animation is reset for all the unique ids.
+     *
+     * @param uuid the unique id
+     */
+    public void reset(@NotNull UUID uuid) {
+        if (timelineMode == TimelineMode.SYNCHRONIZED) {
+            sharedStartMillis.set(-1);
+        } else {
+            startMap.remove(uuid);
+            pausedMap.remove(uuid);
+        }
+    }
+
+    /**
+     * Pause the animation of the unique id and suspend the palette buttons.
+     * In {@link TimelineMode#SYNCHRONIZED} mode, the shared animation keeps running.
+     *
+     * @param uuid the unique id
+     */
+    @Override
+    public void suspend(UUID uuid) {
+        if (timelineMode != TimelineMode.SYNCHRONIZED && startMap.containsKey(uuid)) {
+            pausedMap.putIfAbsent(uuid, clock.currentMillis());
+        }
+        super.suspend(uuid);
+    }
+
+    /**
+     * Resume the animation of the unique id from the step it was paused at and resume the palette buttons
+     *
+     * @param uuid the unique id
+     */
+    @Override
+    public void resume(UUID uuid) {
+        Long pausedMillis = pausedMap.remove(uuid);
+        if (pausedMillis != null) {
+            long currentMillis = clock.currentMillis();
+            startMap.computeIfPresent(uuid, (k, startMillis) -> startMillis + Math.max(0, currentMillis - pausedMillis));
+        }
+        super.resume(uuid);
+    }
+
+    private long getStartMillis(UUID uuid, long currentMillis, boolean startIfNeeded) {
+        if (timelineMode == TimelineMode.SYNCHRONIZED) {
+            if (startIfNeeded) {
+                sharedStartMillis.compareAndSet(-1, currentMillis);
+            }
+            return sharedStartMillis.get();
+        }
+        if (startIfNeeded) {
+            return startMap.computeIfAbsent(uuid, k -> currentMillis);
+        }
+        return startMap.getOrDefault(uuid, -1L);
+    }
+
+    /**
+     * Get the current step of the animation for the unique id. The animation of the unique id starts if it's not started.
+     *
+     * @param uuid the unique id
+     * @return the step
+     */
+    public long getStep(@NotNull UUID uuid) {
+        long currentMillis = pausedMap.getOrDefault(uuid, clock.currentMillis());
+        return Math.max(0, currentMillis - getStartMillis(uuid, currentMillis, true)) / stepMillis;
+    }
+
+    private boolean isChanged(Position position, long fromStep, long toStep) {
+        int x = position.getX();
+        int y = position.getY();
+        return normalizeIndex(patternFunction.getIndex(x, y, fromStep)) != normalizeIndex(patternFunction.getIndex(x, y, toStep));
+    }
+
+    private boolean hasChangedPositions(List<Position> positions, long fromStep, long toStep) {
+        for (Position position : positions) {
+            if (isChanged(position, fromStep, toStep)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the positions that change at the next step for the unique id
+     *
+     * @param uuid the unique id
+     * @return the positions
+     */
+    @NotNull
+    public Set<Position> getChangedPositions(@NotNull UUID uuid) {
+        long step = getStep(uuid);
+        Set<Position> changed = new HashSet<>();
+        for (Position position : this.maskPositionFunction.apply(uuid)) {
+            if (isChanged(position, step, step + 1)) {
+                changed.add(position);
+            }
+        }
+        return changed;
+    }
+
+    private int normalizeIndex(int index) {
+        return index < 0 || index >= this.elements.size() ? -1 : index;
+    }
+
+    @Override
+    public @NotNull Map<Position, Consumer<ActionItem>> apply(@NotNull UUID uuid) {
+        Map<Position, Consumer<ActionItem>> map = new HashMap<>();
+        List<Position> positions = this.maskPositionFunction.apply(uuid);
+        if (this.elements.isEmpty() || positions.isEmpty()) return map;
+
+        long step = getStep(uuid);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Consumer<ActionItem>[] paletteConsumers = new Consumer[this.elements.size()];
+        for (Position position : positions) {
+            int index = normalizeIndex(patternFunction.getIndex(position.getX(), position.getY(), step));
+            if (index < 0) continue;
+            Consumer<ActionItem> consumer = paletteConsumers[index];
+            if (consumer == null) {
+                consumer = this.elements.get(index).apply(uuid);
+                paletteConsumers[index] = consumer;
+            }
+            map.put(position, consumer);
+        }
+        return map;
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        if (this.elements.isEmpty()) return TimedElement.NEVER;
+        long startMillis = getStartMillis(uuid, currentMillis, false);
+        if (startMillis < 0) return currentMillis;
+        if (pausedMap.containsKey(uuid)) return TimedElement.NEVER;
+
+        long step = Math.max(0, currentMillis - startMillis) / stepMillis;
+        List<Position> positions = this.maskPositionFunction.apply(uuid);
+        long nextStep = step + 1;
+        while (nextStep < step + MAX_LOOKAHEAD_STEPS && !hasChangedPositions(positions, step, nextStep)) {
+            nextStep++;
+        }
+        return Math.min(startMillis + nextStep * stepMillis, super.getNextChangeMillis(uuid, currentMillis));
+    }
+
+    /**
+     * Clears the start times of the animation for all users.
+     */
+    @Override
+    public void stop() {
+        this.startMap.clear();
+        this.pausedMap.clear();
+        this.sharedStartMillis.set(-1);
+        super.stop();
+    }
+
+    /**
+     * The function to select the palette index of the position at the step
+     */
+    @FunctionalInterface
+    public interface PatternFunction {
+        /**
+         * Get the palette index
+         *
+         * @param x    the x coordinate of the position
+         * @param y    the y coordinate of the position
+         * @param step the step of the animation
+         * @return the index of the button in the palette, or a negative number to leave the position empty
+         */
+        int getIndex(int x, int y, long step);
+    }
+}
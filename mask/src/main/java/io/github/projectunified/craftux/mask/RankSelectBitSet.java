@@ -0,0 +1,90 @@
+package io.github.projectunified.craftux.mask;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+
+/**
+ * An immutable bit set with a rank directory, used by {@link FacetedPaginatedMask}.
+ * It answers the cardinality in constant time and finds the n-th set bit (select) in logarithmic time,
+ * so a page offset can be located without iterating the bits before it.
+ */
+final class RankSelectBitSet {
+    private static final int WORDS_PER_BLOCK = 8;
+    private final long[] words;
+    private final int[] blockRanks;
+    private final int cardinality;
+
+    RankSelectBitSet(@NotNull BitSet bitSet) {
+        this.words = bitSet.toLongArray();
+        this.blockRanks = new int[(words.length + WORDS_PER_BLOCK - 1) / WORDS_PER_BLOCK];
+        int rank = 0;
+        for (int i = 0; i < words.length; i++) {
+            if (i % WORDS_PER_BLOCK == 0) {
+                blockRanks[i / WORDS_PER_BLOCK] = rank;
+            }
+            rank += Long.bitCount(words[i]);
+        }
+        this.cardinality = rank;
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Get the index of the n-th set bit
+     *
+     * @param n the rank of the set bit, starting from 0
+     * @return the index of the set bit, or -1 if there are not enough set bits
+     */
+    int select(int n) {
+        if (n < 0 || n >= cardinality) return -1;
+
+        int low = 0;
+        int high = blockRanks.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blockRanks[mid] <= n) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        int remaining = n - blockRanks[low];
+        for (int wordIndex = low * WORDS_PER_BLOCK; wordIndex < words.length; wordIndex++) {
+            long word = words[wordIndex];
+            int bitCount = Long.bitCount(word);
+            if (remaining < bitCount) {
+                for (int i = 0; i < remaining; i++) {
+                    word &= word - 1;
+                }
+                return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+            remaining -= bitCount;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index of the next set bit from the index
+     *
+     * @param fromIndex the index to start from (inclusive)
+     * @return the index of the set bit, or -1 if there is none
+     */
+    int nextSetBit(int fromIndex) {
+        int wordIndex = fromIndex / Long.SIZE;
+        if (fromIndex < 0 || wordIndex >= words.length) return -1;
+        long word = words[wordIndex] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+    }
+}
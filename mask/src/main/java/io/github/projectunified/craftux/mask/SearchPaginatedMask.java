@@ -0,0 +1,174 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Position;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A paginated mask that displays the buttons whose search key contains the query of the unique id.
+ * The search keys are stored in an in-memory n-gram index, so a query does not scan the whole catalog.
+ * When the query of the unique id grows, the previous results are refined instead of searching the index again.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * SearchPaginatedMask searchMask = new SearchPaginatedMask(uuid -> MaskUtils.generateAreaPositions(Position.of(0, 0), Position.of(8, 4)));
+ * for (Warp warp : warps) {
+ *     searchMask.addEntry(warp.getName(), new WarpButton(warp));
+ * }
+ * searchMask.setQuery(playerUUID, "spa"); // Displays "Spawn", "Space Station", ...
+ * searchMask.setQuery(playerUUID, "spaw"); // Refines the previous results
+ * }</pre>
+ */
+public class SearchPaginatedMask extends ButtonSourcePaginatedMask {
+    private final NGramIndex index = new NGramIndex();
+    private final List<Button> buttons = new ArrayList<>();
+    private final Map<UUID, SearchResult> resultMap = new ConcurrentHashMap<>();
+    private final AtomicLong versionCounter = new AtomicLong();
+    private volatile long indexVersion = 0;
+
+    /**
+     * Create a new mask
+     *
+     * @param maskPositionFunction the mask position function
+     */
+    public SearchPaginatedMask(@NotNull Function<UUID, List<Position>> maskPositionFunction) {
+        super(maskPositionFunction);
+    }
+
+    /**
+     * Add an entry to the catalog
+     *
+     * @param searchKey the search key of the entry
+     * @param button    the button of the entry
+     */
+    public void addEntry(@NotNull String searchKey, @NotNull Button button) {
+        synchronized (index) {
+            index.add(searchKey);
+            buttons.add(button);
+            indexVersion = versionCounter.incrementAndGet();
+        }
+    }
+
+    /**
+     * Remove all the entries from the catalog
+     */
+    public void clearEntries() {
+        synchronized (index) {
+            index.clear();
+            buttons.clear();
+            indexVersion = versionCounter.incrementAndGet();
+        }
+    }
+
+    /**
+     * Set the query for the unique id. The page of the unique id is reset to the first page.
+     *
+     * @param uuid  the unique id
+     * @param query the query, or null to display all the entries
+     */
+    public void setQuery(@NotNull UUID uuid, @Nullable String query) {
+        String normalizedQuery = query == null ? "" : NGramIndex.normalize(query);
+        SearchResult previousResult = resultMap.get(uuid);
+        if (previousResult != null && previousResult.query.equals(normalizedQuery)) return;
+        resultMap.put(uuid, search(normalizedQuery, previousResult));
+        setPage(uuid, 0);
+    }
+
+    /**
+     * Get the query of the unique id
+     *
+     * @param uuid the unique id
+     * @return the normalized query
+     */
+    @NotNull
+    public String getQuery(@NotNull UUID uuid) {
+        SearchResult result = resultMap.get(uuid);
+        return result == null ? "" : result.query;
+    }
+
+    private SearchResult search(String query, @Nullable SearchResult previousResult) {
+        synchronized (index) {
+            int[] candidates = null;
+            if (previousResult != null
+                    && previousResult.indexVersion == indexVersion
+                    && previousResult.ids != null
+                    && query.contains(previousResult.query)) {
+                candidates = previousResult.ids;
+            }
+            return new SearchResult(query, index.search(query, candidates), indexVersion, versionCounter.incrementAndGet());
+        }
+    }
+
+    private SearchResult getResult(UUID uuid) {
+        SearchResult result = resultMap.get(uuid);
+        if (result == null || result.indexVersion != indexVersion) {
+            result = search(result == null ? "" : result.query, null);
+            resultMap.put(uuid, result);
+        }
+        return result;
+    }
+
+    @Override
+    public @NotNull ButtonSource getButtonSource(@NotNull UUID uuid) {
+        SearchResult result = getResult(uuid);
+        int[] ids = result.ids;
+        return new ButtonSource() {
+            @Override
+            public int size() {
+                if (ids != null) return ids.length;
+                synchronized (index) {
+                    return buttons.size();
+                }
+            }
+
+            @Override
+            public @NotNull List<Button> get(int offset, int count) {
+                synchronized (index) {
+                    int size = ids == null ? buttons.size() : ids.length;
+                    int start = Math.max(0, offset);
+                    int end = Math.min(size, offset + count);
+                    if (start >= end) return Collections.emptyList();
+                    List<Button> list = new ArrayList<>(end - start);
+                    for (int i = start; i < end; i++) {
+                        list.add(buttons.get(ids == null ? i : ids[i]));
+                    }
+                    return list;
+                }
+            }
+
+            @Override
+            public long getVersion() {
+                return result.version;
+            }
+        };
+    }
+
+    /**
+     * Clears the queries, the page number mappings and the cached pages for all users.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        this.resultMap.clear();
+    }
+
+    private static final class SearchResult {
+        private final String query;
+        private final int @Nullable [] ids;
+        private final long indexVersion;
+        private final long version;
+
+        private SearchResult(String query, int @Nullable [] ids, long indexVersion, long version) {
+            this.query = query;
+            this.ids = ids;
+            this.indexVersion = indexVersion;
+            this.version = version;
+        }
+    }
+}
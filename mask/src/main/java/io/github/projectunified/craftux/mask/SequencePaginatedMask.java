@@ -3,19 +3,24 @@ package io.github.projectunified.craftux.mask;
 import io.github.projectunified.craftux.common.ActionItem;
 import io.github.projectunified.craftux.common.Button;
 import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * A paginated mask that displays a sequence of buttons across multiple pages.
  * Each page shows a consecutive subset of buttons from the list.
+ * The buttons are provided as a list with {@link #getButtons(UUID)},
+ * and {@link #getButtonSource(UUID)} can be overridden to fetch them by range.
  *
  * <p>Example usage:</p>
  * <pre>{@code
@@ -35,10 +40,15 @@ import java.util.function.Function;
  *     }
  * }
  * // Page 0: red, blue; Page 1: blue, green; Page 2: green, yellow
+ *
+ * MySequenceMask carouselMask = new MySequenceMask();
+ * carouselMask.setCarousel(true); // Only fetch the newly exposed button from a versioned source when scrolling by one page
  * }</pre>
  */
 public abstract class SequencePaginatedMask extends PaginatedMask {
     protected final Function<UUID, List<Position>> maskPositionFunction;
+    private final Map<UUID, Carousel> carouselMap = new ConcurrentHashMap<>();
+    private boolean carousel = false;
 
     /**
      * Create a new mask
@@ -59,6 +69,30 @@ public abstract class SequencePaginatedMask extends PaginatedMask {
         return this.maskPositionFunction;
     }
 
+    /**
+     * Check if the mask is in carousel mode
+     *
+     * @return true if it is
+     */
+    public boolean isCarousel() {
+        return carousel;
+    }
+
+    /**
+     * Set if the mask is in carousel mode.
+     * In carousel mode, the displayed buttons are kept in a ring buffer per unique id,
+     * so scrolling by one page only fetches the newly exposed button from the source.
+     * The buttons are still applied on every render, so the animated and dynamic buttons keep changing.
+     * The ring buffer is fetched again when the data version or the amount of buttons changes,
+     * and on every render if the source is {@link ButtonSource#UNVERSIONED}, since its changes can't be detected.
+     *
+     * @param carousel true if it is
+     */
+    public void setCarousel(boolean carousel) {
+        this.carousel = carousel;
+        this.carouselMap.clear();
+    }
+
     /**
      * Get the buttons for the unique id
      *
@@ -68,47 +102,199 @@ public abstract class SequencePaginatedMask extends PaginatedMask {
     @NotNull
     public abstract List<Button> getButtons(@NotNull UUID uuid);
 
+    /**
+     * Get the button source for the unique id. By default, it wraps the list from {@link #getButtons(UUID)}.
+     * Override this so that only the buttons of the displayed page are fetched.
+     *
+     * @param uuid the unique id
+     * @return the button source
+     */
+    @NotNull
+    public ButtonSource getButtonSource(@NotNull UUID uuid) {
+        return ButtonSource.of(getButtons(uuid));
+    }
+
+    /**
+     * Get the version of the button source
+     *
+     * @param uuid the unique id
+     * @return the data version, or {@link #UNVERSIONED} if the source does not track its changes
+     */
+    @Override
+    protected long getDataVersion(@NotNull UUID uuid) {
+        return getButtonSource(uuid).getVersion();
+    }
+
     @Override
     protected @Nullable Map<Position, Consumer<ActionItem>> getItemMap(@NotNull UUID uuid, int pageNumber) {
         List<Position> positions = this.maskPositionFunction.apply(uuid);
-        List<Button> buttons = getButtons(uuid);
-        if (buttons.isEmpty() || positions.isEmpty()) return null;
+        if (positions.isEmpty()) return null;
+        ButtonSource source = getButtonSource(uuid);
+        int buttonsSize = source.size();
+        if (buttonsSize <= 0) return null;
 
-        int pageAmount = buttons.size();
-        pageAmount = this.getAndSetExactPage(uuid, pageNumber, pageAmount);
+        int basePage = this.getAndSetExactPage(uuid, pageNumber, buttonsSize);
+        if (this.carousel) {
+            return getCarouselItemMap(uuid, positions, source, buttonsSize, basePage);
+        }
 
         Map<Position, Consumer<ActionItem>> map = new HashMap<>();
-        int basePage = this.getPage(uuid);
-        int buttonsSize = buttons.size();
+        List<Button> buttons = getPageButtons(source, positions.size(), basePage);
+        for (int i = 0; i < buttons.size(); i++) {
+            map.put(positions.get(i), buttons.get(i).apply(uuid));
+        }
+        return map;
+    }
+
+    private @NotNull List<Button> getPageButtons(@NotNull ButtonSource source, int positionSize, int basePage) {
+        List<Button> pageButtons = new ArrayList<>(positionSize);
+        int offset = basePage;
+        while (pageButtons.size() < positionSize) {
+            List<Button> buttons = source.get(offset, positionSize - pageButtons.size());
+            if (buttons.isEmpty()) break;
+            for (Button button : buttons) {
+                if (pageButtons.size() >= positionSize) break;
+                pageButtons.add(button);
+            }
+            if (!this.cycle) break;
+            offset = 0;
+        }
+        return pageButtons;
+    }
+
+    /**
+     * Get the next change time of the buttons displayed for the unique id.
+     * In carousel mode, the buttons in the ring buffer are used, so the source is not fetched.
+     *
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     * @return the next change time in milliseconds
+     */
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        if (this.carousel) {
+            Carousel state = this.carouselMap.get(uuid);
+            if (state != null) {
+                Button[] buttons;
+                synchronized (state) {
+                    buttons = state.buttons;
+                }
+                if (buttons != null) {
+                    long next = TimedElement.NEVER;
+                    for (Button button : buttons) {
+                        next = Math.min(next, TimedElement.getNextChangeMillis(button, uuid, currentMillis));
+                    }
+                    return next;
+                }
+            }
+        }
+        List<Position> positions = this.maskPositionFunction.apply(uuid);
+        if (positions.isEmpty()) return TimedElement.NEVER;
+        ButtonSource source = getButtonSource(uuid);
+        int buttonsSize = source.size();
+        if (buttonsSize <= 0) return TimedElement.NEVER;
+
+        int basePage = this.getExactPage(this.getPage(uuid), buttonsSize);
+        return TimedElement.getNextChangeMillis(getPageButtons(source, positions.size(), basePage), uuid, currentMillis);
+    }
+
+    private @Nullable Button fetch(@NotNull ButtonSource source, int index) {
+        List<Button> buttons = source.get(index, 1);
+        return buttons.isEmpty() ? null : buttons.get(0);
+    }
+
+    private void fetchAll(@NotNull ButtonSource source, int positionSize, int basePage, @Nullable Button[] buttons) {
+        List<Button> pageButtons = getPageButtons(source, positionSize, basePage);
+        for (int i = 0; i < buttons.length; i++) {
+            buttons[i] = i < pageButtons.size() ? pageButtons.get(i) : null;
+        }
+    }
+
+    private int getExposedIndex(int basePage, int offset, int buttonsSize) {
+        int index = basePage + offset;
+        if (!this.cycle) {
+            return index < buttonsSize ? index : -1;
+        }
+        return index < buttonsSize ? index : this.getExactPage(index, buttonsSize);
+    }
+
+    private @NotNull Map<Position, Consumer<ActionItem>> getCarouselItemMap(@NotNull UUID uuid, @NotNull List<Position> positions, @NotNull ButtonSource source, int buttonsSize, int basePage) {
         int positionSize = positions.size();
+        long version = getDataVersion(uuid);
+        Carousel state = this.carouselMap.computeIfAbsent(uuid, k -> new Carousel());
 
-        for (int i = 0; i < positionSize; i++) {
-            int index = i + basePage;
-            if (this.cycle) {
-                index = this.getExactPage(index, pageAmount);
-            } else if (index >= buttonsSize) {
-                break;
+        Button[] snapshot = new Button[positionSize];
+        synchronized (state) {
+            Button[] buttons = state.buttons;
+            if (buttons == null || buttons.length != positionSize || version == ButtonSource.UNVERSIONED || state.version != version || state.buttonsSize != buttonsSize) {
+                buttons = new Button[positionSize];
+                fetchAll(source, positionSize, basePage, buttons);
+                state.buttons = buttons;
+                state.head = 0;
+            } else {
+                int step = basePage - state.basePage;
+                if (this.cycle) {
+                    if (step == buttonsSize - 1) {
+                        step = -1;
+                    } else if (step == 1 - buttonsSize) {
+                        step = 1;
+                    }
+                }
+
+                if (step == 1) {
+                    int exposedIndex = getExposedIndex(basePage, positionSize - 1, buttonsSize);
+                    buttons[state.head] = exposedIndex < 0 ? null : fetch(source, exposedIndex);
+                    if (++state.head == positionSize) state.head = 0;
+                } else if (step == -1) {
+                    if (--state.head < 0) state.head = positionSize - 1;
+                    buttons[state.head] = fetch(source, basePage);
+                } else if (step != 0) {
+                    fetchAll(source, positionSize, basePage, buttons);
+                    state.head = 0;
+                }
+            }
+            state.basePage = basePage;
+            state.version = version;
+            state.buttonsSize = buttonsSize;
+
+            int buttonIndex = state.head;
+            for (int i = 0; i < positionSize; i++) {
+                snapshot[i] = buttons[buttonIndex];
+                if (++buttonIndex == positionSize) buttonIndex = 0;
             }
-            Button button = buttons.get(index);
-            map.put(positions.get(i), button.apply(uuid));
         }
 
+        Map<Position, Consumer<ActionItem>> map = new HashMap<>();
+        for (int i = 0; i < positionSize; i++) {
+            Button button = snapshot[i];
+            if (button != null) {
+                map.put(positions.get(i), button.apply(uuid));
+            }
+        }
         return map;
     }
 
     @Override
     public int getPageAmount(@NotNull UUID uuid) {
         List<Position> positions = this.maskPositionFunction.apply(uuid);
-        List<Button> buttons = getButtons(uuid);
-        if (buttons.isEmpty() || positions.isEmpty()) return 0;
-        return buttons.size();
+        if (positions.isEmpty()) return 0;
+        return getButtonSource(uuid).size();
     }
 
     /**
-     * Clears the page number mappings for all users.
+     * Clears the page number mappings, the carousel buffers and the cached pages for all users.
      */
     @Override
     public void stop() {
-        this.pageNumberMap.clear();
+        super.stop();
+        this.carouselMap.clear();
+    }
+
+    private static final class Carousel {
+        private @Nullable Button[] buttons;
+        private int head;
+        private int basePage;
+        private long version;
+        private int buttonsSize;
     }
 }
@@ -6,6 +6,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -18,7 +19,7 @@ import java.util.function.Consumer;
  * Map<Position, Consumer<ActionItem>> actions = mask.apply(playerUUID);
  * }</pre>
  */
-public class SingleMask implements Element, Mask {
+public class SingleMask implements Element, Mask, TimedElement {
     protected final Position position;
     protected final Button button;
 
@@ -38,11 +39,31 @@ public class SingleMask implements Element, Mask {
         Element.handleIfElement(this.button, Element::init);
     }
 
+    @Override
+    public CompletableFuture<Void> initAsync() {
+        return Element.initAsyncIfElement(this.button);
+    }
+
     @Override
     public void stop() {
         Element.handleIfElement(this.button, Element::stop);
     }
 
+    @Override
+    public void suspend(UUID uuid) {
+        Element.handleIfElement(this.button, element -> element.suspend(uuid));
+    }
+
+    @Override
+    public void resume(UUID uuid) {
+        Element.handleIfElement(this.button, element -> element.resume(uuid));
+    }
+
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        return TimedElement.getNextChangeMillis(this.button, uuid, currentMillis);
+    }
+
     @Override
     public @NotNull Map<Position, Consumer<ActionItem>> apply(@NotNull UUID uuid) {
         return Collections.singletonMap(position, button.apply(uuid));
@@ -0,0 +1,178 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Position;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A paginated mask that displays a live sorted collection of entries.
+ * The entries are kept in an indexed skip list, so inserting and removing an entry costs O(log n)
+ * and extracting a page costs O(log n + page size), without sorting the whole collection again.
+ * When the collection changes, only the viewers whose current page is affected are notified.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * SortedPaginatedMask<Listing> auctionMask = new SortedPaginatedMask<>(
+ *     uuid -> MaskUtils.generateAreaPositions(Position.of(0, 0), Position.of(8, 4)),
+ *     Comparator.comparingLong(Listing::getPrice).thenComparing(Listing::getId),
+ *     ListingButton::new
+ * );
+ * auctionMask.setPageChangeListener(uuid -> uiMap.get(uuid).update());
+ * auctionMask.add(listing); // When a listing is created
+ * auctionMask.remove(listing); // When a listing is sold or expires
+ * }</pre>
+ *
+ * @param <T> the entry type
+ */
+public class SortedPaginatedMask<T> extends ButtonSourcePaginatedMask {
+    private final IndexedSkipList<T> entries;
+    private final Function<T, Button> buttonFunction;
+    private @Nullable Consumer<UUID> pageChangeListener = null;
+    private long version = 0;
+
+    /**
+     * Create a new mask
+     *
+     * @param maskPositionFunction the mask position function
+     * @param comparator           the comparator of the entries. It must be a total order: two entries are the same entry if they compare as equal
+     * @param buttonFunction       the function to create the button of the entry
+     */
+    public SortedPaginatedMask(@NotNull Function<UUID, List<Position>> maskPositionFunction, @NotNull Comparator<? super T> comparator, @NotNull Function<T, Button> buttonFunction) {
+        super(maskPositionFunction);
+        this.entries = new IndexedSkipList<>(comparator);
+        this.buttonFunction = buttonFunction;
+    }
+
+    /**
+     * Set the listener called with the unique ids whose current page is changed by an insertion or a removal.
+     * Use this to update the GUI. Note that the listener is called on the thread that changes the collection.
+     *
+     * @param pageChangeListener the listener
+     */
+    public void setPageChangeListener(@Nullable Consumer<UUID> pageChangeListener) {
+        this.pageChangeListener = pageChangeListener;
+    }
+
+    /**
+     * Add the entry
+     *
+     * @param entry the entry
+     * @return true if the entry was added, or false if an entry that compares as equal is already added
+     */
+    public boolean add(@NotNull T entry) {
+        int rank;
+        synchronized (entries) {
+            rank = entries.add(entry);
+            if (rank < 0) return false;
+            version++;
+        }
+        notifyChange(rank);
+        return true;
+    }
+
+    /**
+     * Remove the entry
+     *
+     * @param entry the entry
+     * @return true if the entry was removed
+     */
+    public boolean remove(@NotNull T entry) {
+        int rank;
+        synchronized (entries) {
+            rank = entries.remove(entry);
+            if (rank < 0) return false;
+            version++;
+        }
+        notifyChange(rank);
+        return true;
+    }
+
+    /**
+     * Remove all the entries
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            version++;
+        }
+        notifyChange(0);
+    }
+
+    /**
+     * Get the amount of entries
+     *
+     * @return the amount of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get the rank of the entry
+     *
+     * @param entry the entry
+     * @return the rank (0-based index), or -1 if the entry is not found
+     */
+    public int getRank(@NotNull T entry) {
+        synchronized (entries) {
+            return entries.indexOf(entry);
+        }
+    }
+
+    private void notifyChange(int rank) {
+        Consumer<UUID> listener = this.pageChangeListener;
+        if (listener == null) return;
+        for (Map.Entry<UUID, Integer> entry : this.pageNumberMap.entrySet()) {
+            UUID uuid = entry.getKey();
+            int positionSize = this.getMaskPositionFunction().apply(uuid).size();
+            if (positionSize <= 0) continue;
+            int pageEnd = (entry.getValue() + 1) * positionSize;
+            if (rank < pageEnd) {
+                listener.accept(uuid);
+            }
+        }
+    }
+
+    @Override
+    public @NotNull ButtonSource getButtonSource(@NotNull UUID uuid) {
+        return new ButtonSource() {
+            @Override
+            public int size() {
+                synchronized (entries) {
+                    return entries.size();
+                }
+            }
+
+            @Override
+            public @NotNull List<Button> get(int offset, int count) {
+                List<T> range;
+                synchronized (entries) {
+                    range = entries.range(offset, count);
+                }
+                List<Button> buttons = new ArrayList<>(range.size());
+                for (T entry : range) {
+                    buttons.add(buttonFunction.apply(entry));
+                }
+                return buttons;
+            }
+
+            @Override
+            public long getVersion() {
+                synchronized (entries) {
+                    return version;
+                }
+            }
+        };
+    }
+}
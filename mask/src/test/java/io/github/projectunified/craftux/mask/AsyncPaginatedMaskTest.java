@@ -0,0 +1,88 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncPaginatedMaskTest {
+    private static final UUID VIEWER = UUID.randomUUID();
+    private static final Position POSITION = Position.of(0, 0);
+
+    private static Object render(AsyncPaginatedMask mask) {
+        ActionItem actionItem = new ActionItem();
+        mask.apply(VIEWER).get(POSITION).accept(actionItem);
+        return actionItem.getItem();
+    }
+
+    private static Button button(String item) {
+        return (uuid, actionItem) -> {
+            actionItem.setItem(item);
+            return true;
+        };
+    }
+
+    @Test
+    void keepsAFailedPageUntilTheRetryTime() throws InterruptedException {
+        TestMask mask = new TestMask();
+        mask.setLoadingButton(button("loading"));
+        mask.setFailedButton(button("failed"));
+        mask.setRetryMillis(30);
+
+        assertEquals("loading", render(mask));
+        mask.requests.get(0).completeExceptionally(new IllegalStateException());
+
+        assertEquals("failed", render(mask));
+        assertEquals("failed", render(mask));
+        assertTrue(mask.isPageFailed(VIEWER, 0));
+        assertEquals(1, mask.requests.size());
+
+        Thread.sleep(50);
+        assertEquals("loading", render(mask));
+        assertEquals(2, mask.requests.size());
+        mask.requests.get(1).complete(Collections.singletonList(button("item")));
+        assertEquals("item", render(mask));
+    }
+
+    @Test
+    void keepsLoadedPagesWhenSuspended() {
+        TestMask mask = new TestMask();
+        render(mask);
+        mask.requests.get(0).complete(Collections.singletonList(button("item")));
+
+        mask.suspend(VIEWER);
+        mask.resume(VIEWER);
+
+        assertEquals("item", render(mask));
+        assertEquals(1, mask.requests.size());
+    }
+
+    private static final class TestMask extends AsyncPaginatedMask {
+        private final List<CompletableFuture<List<Button>>> requests = new ArrayList<>();
+
+        private TestMask() {
+            super(uuid -> Collections.singletonList(POSITION));
+            setPrefetchRange(0);
+        }
+
+        @Override
+        protected CompletableFuture<List<Button>> loadPage(UUID uuid, int pageNumber, int pageSize) {
+            CompletableFuture<List<Button>> future = new CompletableFuture<>();
+            requests.add(future);
+            return future;
+        }
+
+        @Override
+        public int getPageAmount(UUID uuid) {
+            return 1;
+        }
+    }
+}
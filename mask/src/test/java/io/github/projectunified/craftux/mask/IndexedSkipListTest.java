@@ -0,0 +1,92 @@
+package io.github.projectunified.craftux.mask;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedSkipListTest {
+    @Test
+    void keepsTheElementsSortedByRank() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+
+        assertEquals(0, list.add(5));
+        assertEquals(0, list.add(1));
+        assertEquals(2, list.add(9));
+        assertEquals(1, list.add(3));
+
+        assertEquals(4, list.size());
+        assertEquals(Arrays.asList(1, 3, 5, 9), list.range(0, 10));
+        assertEquals(Arrays.asList(3, 5), list.range(1, 2));
+        assertEquals(2, list.indexOf(5));
+        assertEquals(9, list.get(3));
+        assertNull(list.get(4));
+        assertNull(list.get(-1));
+    }
+
+    @Test
+    void rejectsDuplicates() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+        list.add(1);
+
+        assertEquals(-1, list.add(1));
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    void removesElements() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+        list.add(1);
+        list.add(2);
+        list.add(3);
+
+        assertEquals(1, list.remove(2));
+        assertEquals(-1, list.remove(2));
+        assertEquals(-1, list.indexOf(2));
+        assertEquals(Arrays.asList(1, 3), list.range(0, 10));
+
+        list.clear();
+        assertEquals(0, list.size());
+        assertTrue(list.range(0, 10).isEmpty());
+    }
+
+    @Test
+    void matchesASortedListOnRandomOperations() {
+        Random random = new Random(11);
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+        List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(1000);
+            int position = Collections.binarySearch(expected, value);
+            if (random.nextBoolean()) {
+                if (position >= 0) {
+                    assertEquals(-1, list.add(value));
+                } else {
+                    expected.add(-position - 1, value);
+                    assertEquals(-position - 1, list.add(value));
+                }
+            } else {
+                if (position >= 0) {
+                    expected.remove(position);
+                }
+                assertEquals(position >= 0 ? position : -1, list.remove(value));
+            }
+        }
+
+        assertEquals(expected.size(), list.size());
+        assertEquals(expected, list.range(0, expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.get(i));
+            assertEquals(i, list.indexOf(expected.get(i)));
+        }
+        int offset = expected.size() / 3;
+        assertEquals(expected.subList(offset, offset + 10), list.range(offset, 10));
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.projectunified.craftux.mask;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NGramIndexTest {
+    private static NGramIndex index(String... keys) {
+        NGramIndex index = new NGramIndex();
+        for (String key : keys) {
+            index.add(key);
+        }
+        return index;
+    }
+
+    private static int[] bruteForce(List<String> keys, String query) {
+        return IntStream.range(0, keys.size()).filter(id -> NGramIndex.normalize(keys.get(id)).contains(query)).toArray();
+    }
+
+    @Test
+    void findsShortAndLongSubstrings() {
+        NGramIndex index = index("Diamond Sword", "Iron Sword", "Diamond Pickaxe", "Bread");
+
+        assertArrayEquals(new int[]{0, 1}, index.search("sword", null));
+        assertArrayEquals(new int[]{0, 2}, index.search("dia", null));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, index.search("d", null));
+        assertArrayEquals(new int[]{2}, index.search("d pick", null));
+        assertArrayEquals(new int[0], index.search("gold", null));
+        assertArrayEquals(new int[0], index.search("xyz", null));
+    }
+
+    @Test
+    void normalizesTheKeys() {
+        NGramIndex index = index("DIAMOND");
+
+        assertArrayEquals(new int[]{0}, index.search(NGramIndex.normalize("Diamond"), null));
+    }
+
+    @Test
+    void matchesEveryKeyForAnEmptyQuery() {
+        assertNull(index("a", "b").search("", null));
+    }
+
+    @Test
+    void verifiesTheOrderOfTheGrams() {
+        // Both keys contain the grams of "abcd", but only the first contains the query
+        NGramIndex index = index("abcd", "bcd abc");
+
+        assertArrayEquals(new int[]{0}, index.search("abcd", null));
+    }
+
+    @Test
+    void narrowsTheCandidates() {
+        NGramIndex index = index("stone", "stone bricks", "sandstone", "stick");
+
+        int[] candidates = index.search("st", null);
+        assertArrayEquals(new int[]{0, 1, 2, 3}, candidates);
+        assertArrayEquals(new int[]{0, 1, 2}, index.search("ston", candidates));
+        assertArrayEquals(new int[]{1}, index.search("stone b", index.search("stone", candidates)));
+    }
+
+    @Test
+    void matchesBruteForceSearch() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        NGramIndex index = new NGramIndex();
+        for (int i = 0; i < 500; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = 1 + random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                builder.append((char) ('a' + random.nextInt(4)));
+            }
+            keys.add(builder.toString());
+            index.add(builder.toString());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String key = keys.get(random.nextInt(keys.size()));
+            int start = random.nextInt(key.length());
+            String query = key.substring(start, start + 1 + random.nextInt(key.length() - start));
+            assertArrayEquals(bruteForce(keys, query), index.search(query, null), query);
+        }
+    }
+}
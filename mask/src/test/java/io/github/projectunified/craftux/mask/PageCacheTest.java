@@ -0,0 +1,220 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Mask;
+import io.github.projectunified.craftux.common.Position;
+import io.github.projectunified.craftux.common.TimedElement;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCacheTest {
+    private static final UUID VIEWER = UUID.randomUUID();
+    private static final Object OWNER = new Object();
+
+    private static Map<Position, Consumer<ActionItem>> page(int slots) {
+        Map<Position, Consumer<ActionItem>> page = new HashMap<>();
+        for (int i = 0; i < slots; i++) {
+            page.put(Position.of(i, 0), actionItem -> actionItem.setItem("item"));
+        }
+        return page;
+    }
+
+    @Test
+    void keysPagesByOwnerViewerPageAndVersion() {
+        PageCache cache = new PageCache(100);
+        Map<Position, Consumer<ActionItem>> page = page(3);
+        cache.put(OWNER, VIEWER, 0, 1, page);
+
+        assertSame(page, cache.get(OWNER, VIEWER, 0, 1));
+        assertNull(cache.get(OWNER, VIEWER, 0, 2));
+        assertNull(cache.get(OWNER, VIEWER, 1, 1));
+        assertNull(cache.get(OWNER, UUID.randomUUID(), 0, 1));
+        assertNull(cache.get(new Object(), VIEWER, 0, 1));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPagesBySlotCount() {
+        PageCache cache = new PageCache(10);
+        cache.put(OWNER, VIEWER, 0, 1, page(4));
+        cache.put(OWNER, VIEWER, 1, 1, page(4));
+        assertNotNull(cache.get(OWNER, VIEWER, 0, 1)); // Page 1 is now the least recently used
+
+        cache.put(OWNER, VIEWER, 2, 1, page(4));
+
+        assertNotNull(cache.get(OWNER, VIEWER, 0, 1));
+        assertNull(cache.get(OWNER, VIEWER, 1, 1));
+        assertNotNull(cache.get(OWNER, VIEWER, 2, 1));
+        assertEquals(8, cache.getSlotCount());
+    }
+
+    @Test
+    void skipsPagesLargerThanTheCache() {
+        PageCache cache = new PageCache(2);
+        cache.put(OWNER, VIEWER, 0, 1, page(3));
+
+        assertNull(cache.get(OWNER, VIEWER, 0, 1));
+        assertEquals(0, cache.getSlotCount());
+    }
+
+    @Test
+    void invalidatesByOwnerAndViewer() {
+        PageCache cache = new PageCache(100);
+        UUID otherViewer = UUID.randomUUID();
+        Object otherOwner = new Object();
+        cache.put(OWNER, VIEWER, 0, 1, page(1));
+        cache.put(OWNER, otherViewer, 0, 1, page(1));
+        cache.put(otherOwner, VIEWER, 0, 1, page(1));
+
+        cache.invalidate(OWNER, VIEWER);
+        assertNull(cache.get(OWNER, VIEWER, 0, 1));
+        assertNotNull(cache.get(OWNER, otherViewer, 0, 1));
+
+        cache.invalidate(OWNER);
+        assertNull(cache.get(OWNER, otherViewer, 0, 1));
+        assertNotNull(cache.get(otherOwner, VIEWER, 0, 1));
+        assertEquals(1, cache.getSlotCount());
+    }
+
+    @Test
+    void cachesOnlyVersionedPages() {
+        TestMask mask = new TestMask();
+        mask.setPageCache(new PageCache(100));
+
+        mask.version = 1;
+        mask.apply(VIEWER);
+        mask.apply(VIEWER);
+        assertEquals(1, mask.renderCount.get());
+
+        mask.version = 2;
+        mask.apply(VIEWER);
+        assertEquals(2, mask.renderCount.get());
+
+        mask.version = PaginatedMask.UNVERSIONED;
+        mask.apply(VIEWER);
+        mask.apply(VIEWER);
+        assertEquals(4, mask.renderCount.get());
+    }
+
+    @Test
+    void appliesCachedPagesOnTopOfTheExistingItem() {
+        TestMask mask = new TestMask();
+        mask.setPageCache(new PageCache(100));
+        mask.version = 1;
+        mask.apply(VIEWER);
+
+        ActionItem empty = new ActionItem();
+        mask.apply(VIEWER).get(Position.of(0, 0)).accept(empty);
+        assertEquals("button", empty.getItem());
+
+        ActionItem withDefault = new ActionItem();
+        withDefault.setItem("default");
+        mask.apply(VIEWER).get(Position.of(0, 0)).accept(withDefault);
+        assertEquals("default+button", withDefault.getItem());
+    }
+
+    @Test
+    void appliesTheButtonsOfCachedPagesOnEveryRender() {
+        TestMask mask = new TestMask();
+        mask.setPageCache(new PageCache(100));
+        mask.version = 1;
+
+        ActionItem first = new ActionItem();
+        mask.apply(VIEWER).get(Position.of(0, 0)).accept(first);
+        ActionItem second = new ActionItem();
+        mask.apply(VIEWER).get(Position.of(0, 0)).accept(second);
+
+        assertEquals(1, mask.renderCount.get());
+        assertEquals(2, mask.applyCount.get());
+    }
+
+    @Test
+    void cachesMaskPagesOnlyWhenTheMaskDoesNotChangeByItself() {
+        AtomicInteger applyCount = new AtomicInteger();
+        Mask staticMask = uuid -> {
+            applyCount.incrementAndGet();
+            return Collections.singletonMap(Position.of(0, 0), actionItem -> actionItem.setItem("static"));
+        };
+        TimedMask timedMask = new TimedMask(applyCount);
+        long[] version = {PaginatedMask.UNVERSIONED};
+        MaskPaginatedMask mask = new MaskPaginatedMask() {
+            @Override
+            public List<Mask> getMasks(UUID uuid) {
+                return Arrays.asList(staticMask, timedMask);
+            }
+
+            @Override
+            protected long getDataVersion(UUID uuid) {
+                return version[0];
+            }
+        };
+        mask.setPageCache(new PageCache(100));
+
+        mask.apply(VIEWER);
+        mask.apply(VIEWER);
+        assertEquals(2, applyCount.get());
+
+        version[0] = 1;
+        mask.apply(VIEWER);
+        mask.apply(VIEWER);
+        assertEquals(3, applyCount.get());
+
+        mask.nextPage(VIEWER);
+        mask.apply(VIEWER);
+        mask.apply(VIEWER);
+        assertEquals(5, applyCount.get());
+    }
+
+    private static final class TimedMask implements Mask, TimedElement {
+        private final AtomicInteger applyCount;
+
+        private TimedMask(AtomicInteger applyCount) {
+            this.applyCount = applyCount;
+        }
+
+        @Override
+        public Map<Position, Consumer<ActionItem>> apply(UUID uuid) {
+            applyCount.incrementAndGet();
+            return Collections.singletonMap(Position.of(0, 0), actionItem -> actionItem.setItem("frame"));
+        }
+
+        @Override
+        public long getNextChangeMillis(UUID uuid, long currentMillis) {
+            return currentMillis + 50;
+        }
+    }
+
+    private static final class TestMask extends PaginatedMask {
+        private final AtomicInteger renderCount = new AtomicInteger();
+        private final AtomicInteger applyCount = new AtomicInteger();
+        private volatile long version = UNVERSIONED;
+
+        @Override
+        protected Map<Position, Consumer<ActionItem>> getItemMap(UUID uuid, int pageNumber) {
+            renderCount.incrementAndGet();
+            return Collections.singletonMap(Position.of(0, 0), actionItem -> {
+                applyCount.incrementAndGet();
+                actionItem.setItem(actionItem.getItem() == null ? "button" : actionItem.getItem() + "+button");
+            });
+        }
+
+        @Override
+        public int getPageAmount(UUID uuid) {
+            return 1;
+        }
+
+        @Override
+        protected long getDataVersion(UUID uuid) {
+            return version;
+        }
+    }
+}
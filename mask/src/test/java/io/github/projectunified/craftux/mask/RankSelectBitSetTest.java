@@ -0,0 +1,63 @@
+package io.github.projectunified.craftux.mask;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankSelectBitSetTest {
+    private static void assertMatches(BitSet bitSet) {
+        RankSelectBitSet rankSelect = new RankSelectBitSet(bitSet);
+        assertEquals(bitSet.cardinality(), rankSelect.cardinality());
+
+        int n = 0;
+        for (int bit = bitSet.nextSetBit(0); bit >= 0; bit = bitSet.nextSetBit(bit + 1)) {
+            assertEquals(bit, rankSelect.select(n++));
+        }
+        assertEquals(-1, rankSelect.select(n));
+        assertEquals(-1, rankSelect.select(-1));
+
+        for (int from = 0; from <= bitSet.length() + Long.SIZE; from++) {
+            assertEquals(bitSet.nextSetBit(from), rankSelect.nextSetBit(from), "nextSetBit(" + from + ")");
+        }
+    }
+
+    @Test
+    void handlesAnEmptySet() {
+        RankSelectBitSet rankSelect = new RankSelectBitSet(new BitSet());
+
+        assertEquals(0, rankSelect.cardinality());
+        assertEquals(-1, rankSelect.select(0));
+        assertEquals(-1, rankSelect.nextSetBit(0));
+    }
+
+    @Test
+    void selectsAcrossWordAndBlockBoundaries() {
+        BitSet bitSet = new BitSet();
+        bitSet.set(0);
+        bitSet.set(63);
+        bitSet.set(64);
+        bitSet.set(511);
+        bitSet.set(512);
+        bitSet.set(5000); // Leaves several empty blocks in between
+        assertMatches(bitSet);
+    }
+
+    @Test
+    void matchesBitSetOnRandomSets() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            BitSet bitSet = new BitSet();
+            int length = 1 + random.nextInt(4000);
+            double density = random.nextDouble();
+            for (int i = 0; i < length; i++) {
+                if (random.nextDouble() < density) {
+                    bitSet.set(i);
+                }
+            }
+            assertMatches(bitSet);
+        }
+    }
+}
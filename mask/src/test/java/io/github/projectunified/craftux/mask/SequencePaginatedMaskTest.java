@@ -0,0 +1,152 @@
+package io.github.projectunified.craftux.mask;
+
+import io.github.projectunified.craftux.common.ActionItem;
+import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequencePaginatedMaskTest {
+    private static final UUID VIEWER = UUID.randomUUID();
+    private static final List<Position> POSITIONS = Arrays.asList(Position.of(0, 0), Position.of(1, 0), Position.of(2, 0));
+
+    private static Button button(String item) {
+        return (uuid, actionItem) -> {
+            actionItem.setItem(item);
+            return true;
+        };
+    }
+
+    private static List<Object> render(SequencePaginatedMask mask) {
+        Map<Position, Consumer<ActionItem>> map = mask.apply(VIEWER);
+        assertNotNull(map);
+        List<Object> items = new ArrayList<>();
+        for (Position position : POSITIONS) {
+            ActionItem actionItem = new ActionItem();
+            Consumer<ActionItem> consumer = map.get(position);
+            if (consumer != null) {
+                consumer.accept(actionItem);
+            }
+            items.add(actionItem.getItem());
+        }
+        return items;
+    }
+
+    @Test
+    void carouselMatchesThePagesOfTheSequence() {
+        List<Button> buttons = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            buttons.add(button("b" + i));
+        }
+        ListMask carousel = new ListMask(buttons);
+        carousel.setCarousel(true);
+        carousel.setCycle(true);
+        ListMask plain = new ListMask(buttons);
+        plain.setCycle(true);
+
+        int[] moves = {1, 1, 1, -1, 3, 1, 1, 1, 1, -1, -1, -1, -1};
+        assertEquals(render(plain), render(carousel));
+        for (int move : moves) {
+            carousel.setPage(VIEWER, carousel.getPage(VIEWER) + move);
+            plain.setPage(VIEWER, plain.getPage(VIEWER) + move);
+            assertEquals(render(plain), render(carousel));
+        }
+    }
+
+    @Test
+    void carouselSeesChangesOfAnUnversionedList() {
+        List<Button> buttons = new ArrayList<>(Arrays.asList(button("a"), button("b"), button("c"), button("d")));
+        ListMask mask = new ListMask(buttons);
+        mask.setCarousel(true);
+        assertEquals(Arrays.asList("a", "b", "c"), render(mask));
+
+        buttons.set(1, button("x"));
+        assertEquals(Arrays.asList("a", "x", "c"), render(mask));
+    }
+
+    @Test
+    void carouselAppliesTheButtonsOnEveryRender() {
+        AtomicInteger counter = new AtomicInteger();
+        Button dynamic = (uuid, actionItem) -> {
+            actionItem.setItem(counter.incrementAndGet());
+            return true;
+        };
+        ListMask mask = new ListMask(Arrays.asList(dynamic, button("b"), button("c")));
+        mask.setCarousel(true);
+
+        assertEquals(1, render(mask).get(0));
+        assertEquals(2, render(mask).get(0));
+    }
+
+    @Test
+    void carouselOnlyFetchesTheExposedButtonOfAVersionedSource() {
+        List<Button> buttons = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            buttons.add(button("b" + i));
+        }
+        AtomicInteger fetched = new AtomicInteger();
+        SequencePaginatedMask mask = new SequencePaginatedMask(uuid -> POSITIONS) {
+            @Override
+            public List<Button> getButtons(UUID uuid) {
+                return buttons;
+            }
+
+            @Override
+            public ButtonSource getButtonSource(UUID uuid) {
+                ButtonSource source = ButtonSource.of(buttons);
+                return new ButtonSource() {
+                    @Override
+                    public int size() {
+                        return source.size();
+                    }
+
+                    @Override
+                    public List<Button> get(int offset, int count) {
+                        List<Button> list = source.get(offset, count);
+                        fetched.addAndGet(list.size());
+                        return list;
+                    }
+
+                    @Override
+                    public long getVersion() {
+                        return 1;
+                    }
+                };
+            }
+        };
+        mask.setCarousel(true);
+
+        render(mask);
+        assertEquals(3, fetched.get());
+
+        mask.nextPage(VIEWER);
+        assertEquals(Arrays.asList("b1", "b2", "b3"), render(mask));
+        assertEquals(4, fetched.get());
+
+        render(mask);
+        assertEquals(4, fetched.get());
+    }
+
+    private static final class ListMask extends SequencePaginatedMask {
+        private final List<Button> buttons;
+
+        private ListMask(List<Button> buttons) {
+            super(uuid -> POSITIONS);
+            this.buttons = buttons;
+        }
+
+        @Override
+        public List<Button> getButtons(UUID uuid) {
+            return buttons;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package io.github.projectunified.craftux.minestom;
 
 import io.github.projectunified.craftux.common.ActionItem;
 import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Element;
+import io.github.projectunified.craftux.common.InventoryLayout;
 import io.github.projectunified.craftux.common.Mask;
 import io.github.projectunified.craftux.common.Position;
 import net.kyori.adventure.text.Component;
@@ -17,14 +19,19 @@ import net.minestom.server.inventory.Inventory;
 import net.minestom.server.inventory.InventoryType;
 import net.minestom.server.item.ItemStack;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * Represents an inventory-based user interface for Minestom servers.
@@ -43,7 +50,13 @@ import java.util.stream.Collectors;
 public class MinestomInventoryUI {
     private final UUID viewerId;
     private final Inventory inventory;
-    private final AtomicReference<Map<Integer, Consumer<Object>>> eventConsumerMapRef = new AtomicReference<>();
+    private final InventoryLayout layout;
+    private final AtomicReference<Consumer<Object>[]> eventConsumersRef = new AtomicReference<>();
+    private final Set<UUID> viewers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean suspended = new AtomicBoolean(false);
+    private volatile @Nullable Consumer<Boolean> viewingListener = null;
+    private volatile BitSet staleSlots = new BitSet();
+    private volatile Consumer<ActionItem>[] pendingSlotConsumers = null;
     private final EventNode<@NotNull InventoryEvent> eventNode;
     private Mask mask;
     private Button defaultButton;
@@ -57,9 +70,13 @@ public class MinestomInventoryUI {
     public MinestomInventoryUI(UUID viewerId, Inventory inventory) {
         this.viewerId = viewerId;
         this.inventory = inventory;
+        this.layout = MinestomInventoryUtil.getLayout(inventory.getInventoryType());
 
         eventNode = EventNode.event("inventory-" + UUID.randomUUID(), EventFilter.INVENTORY, event -> Objects.equals(event.getInventory(), inventory));
-        eventNode.addListener(InventoryOpenEvent.class, this::onOpen);
+        eventNode.addListener(InventoryOpenEvent.class, event -> {
+            handleViewerAdded(event.getPlayer().getUuid());
+            onOpen(event);
+        });
         eventNode.addListener(InventoryPreClickEvent.class, event -> {
             boolean wasCancelled = event.isCancelled();
             event.setCancelled(true);
@@ -68,7 +85,10 @@ public class MinestomInventoryUI {
                 event.setCancelled(false);
             }
         });
-        eventNode.addListener(InventoryCloseEvent.class, this::onClose);
+        eventNode.addListener(InventoryCloseEvent.class, event -> {
+            handleViewerRemoved(event.getPlayer().getUuid());
+            onClose(event);
+        });
     }
 
     /**
@@ -133,6 +153,15 @@ public class MinestomInventoryUI {
         }
     }
 
+    /**
+     * Get the layout of the inventory
+     *
+     * @return the layout
+     */
+    public InventoryLayout getLayout() {
+        return layout;
+    }
+
     /**
      * Get the viewer's UUID
      *
@@ -158,6 +187,7 @@ public class MinestomInventoryUI {
      */
     public void setMask(Mask mask) {
         this.mask = mask;
+        this.pendingSlotConsumers = null;
     }
 
     /**
@@ -182,27 +212,106 @@ public class MinestomInventoryUI {
      * Update the inventory
      */
     public void update() {
+        update(Long.MAX_VALUE, false);
+    }
+
+    /**
+     * Update the inventory within the time budget.
+     * The slots are rendered in priority order: the slots left stale by the previous update, the slots of the mask, then the other slots.
+     * When the budget runs out, the remaining slots keep their previous item and action,
+     * and the next budgeted update renders them from the same pass without applying the mask again,
+     * so the mask is applied once per complete pass instead of on every update.
+     * At least one slot is rendered on every update.
+     *
+     * @param budget the time budget
+     */
+    public void update(Duration budget) {
+        update(System.nanoTime() + budget.toNanos(), true);
+    }
+
+    /**
+     * Check if some slots were not rendered by the last update because the time budget ran out
+     *
+     * @return true if there are stale slots
+     */
+    public boolean hasStaleSlots() {
+        return !staleSlots.isEmpty();
+    }
+
+    private int[] getSlotOrder(Consumer<ActionItem>[] slotConsumers, int size, boolean resuming) {
+        int[] order = new int[resuming ? staleSlots.cardinality() : size];
+        int index = 0;
+        for (int slot = staleSlots.nextSetBit(0); slot >= 0 && slot < size && index < order.length; slot = staleSlots.nextSetBit(slot + 1)) {
+            order[index++] = slot;
+        }
+        if (resuming) {
+            return index == order.length ? order : Arrays.copyOf(order, index);
+        }
+        for (int slot = 0; slot < size; slot++) {
+            if (!staleSlots.get(slot) && slotConsumers[slot] != null) {
+                order[index++] = slot;
+            }
+        }
+        for (int slot = 0; slot < size; slot++) {
+            if (!staleSlots.get(slot) && slotConsumers[slot] == null) {
+                order[index++] = slot;
+            }
+        }
+        return order;
+    }
+
+    private @Nullable Consumer<ActionItem>[] createSlotConsumers(int size) {
         Map<Position, Consumer<ActionItem>> positionActionItemMap = mask != null ? mask.apply(viewerId) : null;
-        if (positionActionItemMap == null) {
+        if (positionActionItemMap == null) return null;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Consumer<ActionItem>[] slotConsumers = new Consumer[size];
+        for (Map.Entry<Position, Consumer<ActionItem>> entry : positionActionItemMap.entrySet()) {
+            int slot = layout.toSlot(entry.getKey());
+            if (slot >= 0 && slot < size) {
+                slotConsumers[slot] = entry.getValue();
+            }
+        }
+        return slotConsumers;
+    }
+
+    private void update(long deadlineNanos, boolean budgeted) {
+        int size = inventory.getSize();
+        Consumer<ActionItem>[] pendingSlotConsumers = this.pendingSlotConsumers;
+        boolean resuming = budgeted && pendingSlotConsumers != null && pendingSlotConsumers.length == size;
+        Consumer<ActionItem>[] slotConsumers = resuming ? pendingSlotConsumers : createSlotConsumers(size);
+        if (slotConsumers == null) {
             inventory.clear();
-            eventConsumerMapRef.set(null);
+            eventConsumersRef.set(null);
+            staleSlots = new BitSet();
+            this.pendingSlotConsumers = null;
             return;
         }
 
-        Map<Integer, Consumer<ActionItem>> newItemMap = positionActionItemMap.entrySet().stream()
-                .collect(Collectors.toMap(entry -> MinestomInventoryUtil.toSlot(entry.getKey(), inventory.getInventoryType()), Map.Entry::getValue));
-
         Consumer<ActionItem> defaultActionItemConsumer = defaultButton == null ? null : defaultButton.apply(viewerId);
 
-        Map<Integer, Consumer<Object>> consumerMap = new HashMap<>();
-        for (int slot = 0; slot < inventory.getSize(); slot++) {
+        Consumer<Object>[] previousConsumers = eventConsumersRef.get();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Consumer<Object>[] eventConsumers = budgeted && previousConsumers != null && previousConsumers.length == size ? previousConsumers.clone() : new Consumer[size];
+        int[] slotOrder = budgeted ? getSlotOrder(slotConsumers, size, resuming) : null;
+        int slotCount = slotOrder == null ? size : slotOrder.length;
+        BitSet remainingSlots = new BitSet(size);
+        for (int i = 0; i < slotCount; i++) {
+            int slot = slotOrder == null ? i : slotOrder[i];
+            if (budgeted && i > 0 && System.nanoTime() - deadlineNanos >= 0) {
+                for (int j = i; j < slotCount; j++) {
+                    remainingSlots.set(slotOrder[j]);
+                }
+                break;
+            }
+
             ActionItem actionItem = this.createActionItem();
 
             if (defaultActionItemConsumer != null) {
                 defaultActionItemConsumer.accept(actionItem);
             }
 
-            Consumer<ActionItem> actionItemConsumer = newItemMap.get(slot);
+            Consumer<ActionItem> actionItemConsumer = slotConsumers[slot];
             if (actionItemConsumer != null) {
                 actionItemConsumer.accept(actionItem);
             }
@@ -210,21 +319,67 @@ public class MinestomInventoryUI {
             ItemStack item = actionItem.getItem(ItemStack.class);
             inventory.setItemStack(slot, item == null ? ItemStack.AIR : item);
 
-            Consumer<Object> consumer = actionItem.getAction();
-            if (consumer != null) {
-                consumerMap.put(slot, consumer);
+            eventConsumers[slot] = actionItem.getAction();
+        }
+
+        staleSlots = remainingSlots;
+        this.pendingSlotConsumers = remainingSlots.isEmpty() ? null : slotConsumers;
+        eventConsumersRef.set(eventConsumers);
+    }
+
+    /**
+     * Check if the inventory is being viewed by any player
+     *
+     * @return true if it is
+     */
+    public boolean isViewing() {
+        return !viewers.isEmpty();
+    }
+
+    /**
+     * Set the listener called with true when the first player opens the inventory, and with false when the last player closes it.
+     * Use this to schedule the updates of the inventory only while it's being viewed.
+     * Note that the listener is called on the thread that handles the open and close events.
+     *
+     * @param viewingListener the listener
+     */
+    public void setViewingListener(@Nullable Consumer<Boolean> viewingListener) {
+        this.viewingListener = viewingListener;
+    }
+
+    private void handleViewerAdded(UUID playerId) {
+        if (viewers.add(playerId) && viewers.size() == 1) {
+            if (suspended.compareAndSet(true, false)) {
+                Element.handleIfElement(mask, element -> element.resume(viewerId));
+                Element.handleIfElement(defaultButton, element -> element.resume(viewerId));
+            }
+            Consumer<Boolean> listener = this.viewingListener;
+            if (listener != null) {
+                listener.accept(true);
             }
         }
+    }
 
-        eventConsumerMapRef.set(consumerMap);
+    private void handleViewerRemoved(UUID playerId) {
+        if (viewers.remove(playerId) && viewers.isEmpty()) {
+            if (suspended.compareAndSet(false, true)) {
+                Element.handleIfElement(mask, element -> element.suspend(viewerId));
+                Element.handleIfElement(defaultButton, element -> element.suspend(viewerId));
+            }
+            Consumer<Boolean> listener = this.viewingListener;
+            if (listener != null) {
+                listener.accept(false);
+            }
+        }
     }
 
     private void handleClick(InventoryPreClickEvent event) {
         this.onClick(event);
 
-        Map<Integer, Consumer<Object>> consumerMap = eventConsumerMapRef.get();
-        if (consumerMap == null) return;
-        Consumer<Object> consumer = consumerMap.get(event.getSlot());
+        Consumer<Object>[] eventConsumers = eventConsumersRef.get();
+        int slot = event.getSlot();
+        if (eventConsumers == null || !layout.isValidSlot(slot) || slot >= eventConsumers.length) return;
+        Consumer<Object> consumer = eventConsumers[slot];
         if (consumer == null) return;
 
         consumer.accept(event);
@@ -1,5 +1,6 @@
 package io.github.projectunified.craftux.minestom;
 
+import io.github.projectunified.craftux.common.InventoryLayout;
 import io.github.projectunified.craftux.common.Position;
 import net.minestom.server.inventory.InventoryType;
 
@@ -22,24 +23,43 @@ public interface MinestomInventoryUtil {
     }
 
     /**
-     * Convert a position to a slot index
+     * Get the layout of the inventory type.
+     * The grid inventories are laid out by their rows of {@link #slotPerRow(InventoryType)} slots,
+     * and the other inventories (e.g. furnace, anvil, brewing stand and hopper) are laid out as a single row,
+     * which keeps the positions used by the existing masks.
+     *
+     * @param inventoryType the inventory type
+     * @return the layout
+     */
+    static InventoryLayout getLayout(InventoryType inventoryType) {
+        return InventoryLayout.of(slotPerRow(inventoryType), inventoryType.getSize());
+    }
+
+    /**
+     * Convert a position to a slot index.
+     * The position is not checked against the inventory, so the slot can be out of range.
      *
      * @param position      the position
      * @param inventoryType the inventory type
      * @return the slot index
+     * @deprecated use {@link InventoryLayout#toSlot(Position)} of {@link #getLayout(InventoryType)}, which drops the positions outside the inventory
      */
+    @Deprecated
     static int toSlot(Position position, InventoryType inventoryType) {
         int slotPerRow = slotPerRow(inventoryType);
         return position.getX() + position.getY() * slotPerRow;
     }
 
     /**
-     * Convert a slot index to a position
+     * Convert a slot index to a position.
+     * The slot is not checked against the inventory.
      *
      * @param slot          the slot index
      * @param inventoryType the inventory type
      * @return the position
+     * @deprecated use {@link InventoryLayout#toPosition(int)} of {@link #getLayout(InventoryType)}, which checks the slot
      */
+    @Deprecated
     static Position toPosition(int slot, InventoryType inventoryType) {
         int slotPerRow = slotPerRow(inventoryType);
         if (slotPerRow < 1) {
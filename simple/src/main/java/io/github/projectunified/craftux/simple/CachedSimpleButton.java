@@ -0,0 +1,173 @@
+package io.github.projectunified.craftux.simple;
+
+import io.github.projectunified.craftux.common.Element;
+import io.github.projectunified.craftux.common.TimedElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link SimpleButton} variant that caches the item of every unique id.
+ * The item function is only called again when the cached item expires or is invalidated,
+ * so repeated refreshes return the same item instance.
+ * The cache is bounded: the least recently used items are removed when it is full.
+ * An item whose computation overlaps an invalidation is returned but not cached, so a stale item never overwrites the invalidation.
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * CachedSimpleButton profileButton = new CachedSimpleButton(
+ *     uuid -> createProfileItem(uuid), // Expensive to build
+ *     event -> openProfile(event)
+ * );
+ * profileButton.setTtlMillis(5000); // Rebuild at most every 5 seconds
+ * profileButton.invalidate(playerUUID); // When the profile of the player changes
+ * }</pre>
+ */
+public class CachedSimpleButton extends SimpleButton implements Element, TimedElement {
+    private final Map<UUID, CachedItem> cache = new LinkedHashMap<UUID, CachedItem>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedItem> eldest) {
+            return size() > maxSize;
+        }
+    };
+    private long ttlMillis = 0;
+    private int maxSize = 1024;
+    private long generation = 0;
+
+    /**
+     * Create a new button
+     *
+     * @param itemFunction the item function
+     * @param consumer     the consumer
+     */
+    public CachedSimpleButton(@NotNull Function<@NotNull UUID, @Nullable Object> itemFunction, @NotNull Consumer<@NotNull Object> consumer) {
+        super(itemFunction, consumer);
+    }
+
+    /**
+     * Create a new button
+     *
+     * @param itemFunction the item function
+     */
+    public CachedSimpleButton(@NotNull Function<@NotNull UUID, @Nullable Object> itemFunction) {
+        super(itemFunction);
+    }
+
+    /**
+     * Set the time to live of the cached items
+     *
+     * @param ttlMillis the time to live in milliseconds, or 0 to keep the items until they are invalidated
+     * @throws IllegalArgumentException if ttlMillis is negative
+     */
+    public void setTtlMillis(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("TTL cannot be negative");
+        }
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Set the maximum amount of cached items
+     *
+     * @param maxSize the maximum amount
+     * @throws IllegalArgumentException if maxSize is not positive
+     */
+    public void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        synchronized (cache) {
+            this.maxSize = maxSize;
+            while (cache.size() > maxSize) {
+                cache.remove(cache.keySet().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Invalidate the cached item of the unique id
+     *
+     * @param uuid the unique id
+     */
+    public void invalidate(@NotNull UUID uuid) {
+        synchronized (cache) {
+            cache.remove(uuid);
+            generation++;
+        }
+    }
+
+    /**
+     * Invalidate all the cached items
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+            generation++;
+        }
+    }
+
+    /**
+     * Get the item of the unique id, from the cache if it's not expired
+     *
+     * @param uuid the unique id
+     * @return the item
+     */
+    @Override
+    public @Nullable Object getItem(@NotNull UUID uuid) {
+        long currentMillis = System.currentTimeMillis();
+        long computeGeneration;
+        synchronized (cache) {
+            CachedItem cachedItem = cache.get(uuid);
+            if (cachedItem != null && (cachedItem.expireMillis < 0 || currentMillis < cachedItem.expireMillis)) {
+                return cachedItem.item;
+            }
+            computeGeneration = generation;
+        }
+
+        Object item = super.getItem(uuid);
+        long expireMillis = ttlMillis > 0 ? currentMillis + ttlMillis : -1;
+        synchronized (cache) {
+            if (computeGeneration == generation) {
+                cache.put(uuid, new CachedItem(item, expireMillis));
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Get the time the cached item of the unique id expires
+     *
+     * @param uuid          the unique id
+     * @param currentMillis the current time in milliseconds
+     * @return the expiry time in milliseconds, or {@link TimedElement#NEVER} if the items don't expire
+     */
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        if (ttlMillis <= 0) return TimedElement.NEVER;
+        synchronized (cache) {
+            CachedItem cachedItem = cache.get(uuid);
+            if (cachedItem == null || cachedItem.expireMillis < 0) return currentMillis;
+            return Math.max(currentMillis, cachedItem.expireMillis);
+        }
+    }
+
+    @Override
+    public void stop() {
+        invalidateAll();
+    }
+
+    private static final class CachedItem {
+        private final Object item;
+        private final long expireMillis;
+
+        private CachedItem(Object item, long expireMillis) {
+            this.item = item;
+            this.expireMillis = expireMillis;
+        }
+    }
+}
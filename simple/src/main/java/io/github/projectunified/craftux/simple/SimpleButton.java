@@ -78,9 +78,19 @@ public class SimpleButton implements Button {
         this(uuid -> item);
     }
 
+    /**
+     * Get the item of the unique id
+     *
+     * @param uuid the unique id
+     * @return the item
+     */
+    public @Nullable Object getItem(@NotNull UUID uuid) {
+        return itemFunction.apply(uuid);
+    }
+
     @Override
     public boolean apply(@NotNull UUID uuid, @NotNull ActionItem actionItem) {
-        actionItem.setItem(itemFunction.apply(uuid));
+        actionItem.setItem(getItem(uuid));
         actionItem.setAction(consumer);
         return true;
     }
@@ -4,6 +4,7 @@ import io.github.projectunified.craftux.common.*;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -19,7 +20,7 @@ import java.util.function.Consumer;
  * Map<Position, Consumer<ActionItem>> actions = mask.apply(playerUUID);
  * }</pre>
  */
-public class SimpleButtonMask implements Element, Mask {
+public class SimpleButtonMask implements Element, Mask, TimedElement {
     private final Map<Button, Collection<Position>> buttonSlotMap = new LinkedHashMap<>();
 
     /**
@@ -56,12 +57,22 @@ public class SimpleButtonMask implements Element, Mask {
         Element.handleIfElement(buttonSlotMap.keySet(), Element::init);
     }
 
+    @Override
+    public CompletableFuture<Void> initAsync() {
+        return Element.initAsyncIfElement(buttonSlotMap.keySet());
+    }
+
     @Override
     public void stop() {
         Element.handleIfElement(buttonSlotMap.keySet(), Element::stop);
         buttonSlotMap.clear();
     }
 
+    @Override
+    public long getNextChangeMillis(@NotNull UUID uuid, long currentMillis) {
+        return TimedElement.getNextChangeMillis(buttonSlotMap.keySet(), uuid, currentMillis);
+    }
+
     @Override
     public @NotNull Map<Position, Consumer<ActionItem>> apply(@NotNull UUID uuid) {
         Map<Position, Consumer<ActionItem>> map = new HashMap<>();
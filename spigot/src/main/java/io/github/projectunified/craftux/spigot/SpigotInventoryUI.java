@@ -2,6 +2,8 @@ package io.github.projectunified.craftux.spigot;
 
 import io.github.projectunified.craftux.common.ActionItem;
 import io.github.projectunified.craftux.common.Button;
+import io.github.projectunified.craftux.common.Element;
+import io.github.projectunified.craftux.common.InventoryLayout;
 import io.github.projectunified.craftux.common.Mask;
 import io.github.projectunified.craftux.common.Position;
 import org.bukkit.Bukkit;
@@ -10,18 +12,28 @@ import org.bukkit.event.inventory.*;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Represents an inventory-based user interface for Spigot (Minecraft) servers.
  * Manages the display and interaction of GUI elements in a player's inventory.
+ * An update only writes the slots whose item changed since the previous update,
+ * so a slot changed outside {@link #update()} is not restored by the next update.
+ * The written items are forgotten when a player opens the inventory,
+ * otherwise call {@link #invalidateContents()} after changing the inventory directly.
  *
  * <p>Example usage:</p>
  * <pre>{@code
@@ -35,7 +47,15 @@ import java.util.stream.Collectors;
 public class SpigotInventoryUI implements InventoryHolder {
     private final UUID viewerId;
     private final Inventory inventory;
-    private final AtomicReference<Map<Integer, Consumer<Object>>> eventConsumerMapRef = new AtomicReference<>();
+    private final InventoryLayout layout;
+    private final AtomicReference<Consumer<Object>[]> eventConsumersRef = new AtomicReference<>();
+    private final Set<UUID> viewers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean suspended = new AtomicBoolean(false);
+    private volatile @Nullable Consumer<Boolean> viewingListener = null;
+    private volatile BitSet staleSlots = new BitSet();
+    private volatile Consumer<ActionItem>[] pendingSlotConsumers = null;
+    private volatile ItemStack[] writtenContents = null;
+    private volatile ItemStack[] renderedContents = null;
     private Mask mask;
     private Button defaultButton;
     private boolean moveItemOnBottom = false;
@@ -49,6 +69,7 @@ public class SpigotInventoryUI implements InventoryHolder {
     public SpigotInventoryUI(UUID viewerId, Function<InventoryHolder, Inventory> inventoryFunction) {
         this.viewerId = viewerId;
         this.inventory = inventoryFunction.apply(this);
+        this.layout = SpigotInventoryUtil.getLayout(inventory);
     }
 
     /**
@@ -97,6 +118,15 @@ public class SpigotInventoryUI implements InventoryHolder {
         }
     }
 
+    /**
+     * Get the layout of the inventory
+     *
+     * @return the layout
+     */
+    public InventoryLayout getLayout() {
+        return layout;
+    }
+
     /**
      * Get the viewer's UUID
      *
@@ -122,6 +152,7 @@ public class SpigotInventoryUI implements InventoryHolder {
      */
     public void setMask(Mask mask) {
         this.mask = mask;
+        this.pendingSlotConsumers = null;
     }
 
     /**
@@ -152,44 +183,220 @@ public class SpigotInventoryUI implements InventoryHolder {
     }
 
     /**
-     * Update the inventory
+     * Update the inventory.
+     * Only the slots whose item changed since the last update are written.
+     * An item is first compared by reference with the item rendered by the last update, and is unchanged if it's the same instance.
+     * Otherwise, it's compared with a copy of the written item, so a new item equal to the written one is not written again.
+     * Call {@link #invalidateContents()} after changing an item in place (e.g. with {@link ItemStack#setAmount(int)}) that is returned again as the same instance.
+     * When most of the slots changed, the contents are written at once.
      */
     public void update() {
+        update(Long.MAX_VALUE, false);
+    }
+
+    /**
+     * Update the inventory within the time budget.
+     * The slots are rendered in priority order: the slots left stale by the previous update, the slots of the mask, then the other slots.
+     * When the budget runs out, the remaining slots keep their previous item and action,
+     * and the next budgeted update renders them from the same pass without applying the mask again,
+     * so the mask is applied once per complete pass instead of on every update.
+     * At least one slot is rendered on every update.
+     *
+     * @param budget the time budget
+     */
+    public void update(Duration budget) {
+        update(System.nanoTime() + budget.toNanos(), true);
+    }
+
+    /**
+     * Check if some slots were not rendered by the last update because the time budget ran out
+     *
+     * @return true if there are stale slots
+     */
+    public boolean hasStaleSlots() {
+        return !staleSlots.isEmpty();
+    }
+
+    private int[] getSlotOrder(Consumer<ActionItem>[] slotConsumers, int size, boolean resuming) {
+        int[] order = new int[resuming ? staleSlots.cardinality() : size];
+        int index = 0;
+        for (int slot = staleSlots.nextSetBit(0); slot >= 0 && slot < size && index < order.length; slot = staleSlots.nextSetBit(slot + 1)) {
+            order[index++] = slot;
+        }
+        if (resuming) {
+            return index == order.length ? order : Arrays.copyOf(order, index);
+        }
+        for (int slot = 0; slot < size; slot++) {
+            if (!staleSlots.get(slot) && slotConsumers[slot] != null) {
+                order[index++] = slot;
+            }
+        }
+        for (int slot = 0; slot < size; slot++) {
+            if (!staleSlots.get(slot) && slotConsumers[slot] == null) {
+                order[index++] = slot;
+            }
+        }
+        return order;
+    }
+
+    private @Nullable Consumer<ActionItem>[] createSlotConsumers(int size) {
         Map<Position, Consumer<ActionItem>> positionActionItemMap = mask != null ? mask.apply(viewerId) : null;
-        if (positionActionItemMap == null) {
+        if (positionActionItemMap == null) return null;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Consumer<ActionItem>[] slotConsumers = new Consumer[size];
+        for (Map.Entry<Position, Consumer<ActionItem>> entry : positionActionItemMap.entrySet()) {
+            int slot = layout.toSlot(entry.getKey());
+            if (slot >= 0 && slot < size) {
+                slotConsumers[slot] = entry.getValue();
+            }
+        }
+        return slotConsumers;
+    }
+
+    private void update(long deadlineNanos, boolean budgeted) {
+        int size = inventory.getSize();
+        Consumer<ActionItem>[] pendingSlotConsumers = this.pendingSlotConsumers;
+        boolean resuming = budgeted && pendingSlotConsumers != null && pendingSlotConsumers.length == size;
+        Consumer<ActionItem>[] slotConsumers = resuming ? pendingSlotConsumers : createSlotConsumers(size);
+        if (slotConsumers == null) {
             inventory.clear();
-            eventConsumerMapRef.set(null);
+            eventConsumersRef.set(null);
+            staleSlots = new BitSet();
+            writtenContents = new ItemStack[inventory.getSize()];
+            renderedContents = new ItemStack[inventory.getSize()];
+            this.pendingSlotConsumers = null;
             return;
         }
 
-        Map<Integer, Consumer<ActionItem>> newItemMap = positionActionItemMap.entrySet().stream()
-                .collect(Collectors.toMap(entry -> SpigotInventoryUtil.toSlot(entry.getKey(), inventory.getType()), Map.Entry::getValue));
-
         Consumer<ActionItem> defaultActionItemConsumer = defaultButton == null ? null : defaultButton.apply(viewerId);
 
-        Map<Integer, Consumer<Object>> consumerMap = new HashMap<>();
-        for (int slot = 0; slot < inventory.getSize(); slot++) {
+        Consumer<Object>[] previousConsumers = eventConsumersRef.get();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Consumer<Object>[] eventConsumers = budgeted && previousConsumers != null && previousConsumers.length == size ? previousConsumers.clone() : new Consumer[size];
+        int[] slotOrder = budgeted ? getSlotOrder(slotConsumers, size, resuming) : null;
+        int slotCount = slotOrder == null ? size : slotOrder.length;
+        BitSet remainingSlots = new BitSet(size);
+        ItemStack[] previousContents = this.writtenContents;
+        ItemStack[] previousRendered = this.renderedContents;
+        if (previousContents != null && (previousContents.length != size || previousRendered == null || previousRendered.length != size)) {
+            previousContents = null;
+        }
+        ItemStack[] contents = previousContents == null ? new ItemStack[size] : previousContents.clone();
+        ItemStack[] written = previousContents == null ? new ItemStack[size] : previousContents.clone();
+        ItemStack[] rendered = previousContents == null ? new ItemStack[size] : previousRendered.clone();
+        BitSet changedSlots = new BitSet(size);
+        for (int i = 0; i < slotCount; i++) {
+            int slot = slotOrder == null ? i : slotOrder[i];
+            if (budgeted && i > 0 && System.nanoTime() - deadlineNanos >= 0) {
+                for (int j = i; j < slotCount; j++) {
+                    remainingSlots.set(slotOrder[j]);
+                }
+                break;
+            }
+
             ActionItem actionItem = this.createActionItem();
 
             if (defaultActionItemConsumer != null) {
                 defaultActionItemConsumer.accept(actionItem);
             }
 
-            Consumer<ActionItem> actionItemConsumer = newItemMap.get(slot);
+            Consumer<ActionItem> actionItemConsumer = slotConsumers[slot];
             if (actionItemConsumer != null) {
                 actionItemConsumer.accept(actionItem);
             }
 
             ItemStack item = actionItem.getItem(ItemStack.class);
-            inventory.setItem(slot, item);
+            if (previousContents == null || (item != previousRendered[slot] && !Objects.equals(item, previousContents[slot]))) {
+                contents[slot] = item;
+                written[slot] = item == null ? null : item.clone();
+                changedSlots.set(slot);
+            }
+            rendered[slot] = item;
+
+            eventConsumers[slot] = actionItem.getAction();
+        }
 
-            Consumer<Object> consumer = actionItem.getAction();
-            if (consumer != null) {
-                consumerMap.put(slot, consumer);
+        int changedCount = changedSlots.cardinality();
+        if (changedCount > size / 2 && (previousContents != null || remainingSlots.isEmpty())) {
+            inventory.setContents(contents);
+        } else {
+            for (int slot = changedSlots.nextSetBit(0); slot >= 0; slot = changedSlots.nextSetBit(slot + 1)) {
+                inventory.setItem(slot, contents[slot]);
             }
         }
+        writtenContents = written;
+        renderedContents = rendered;
+
+        staleSlots = remainingSlots;
+        this.pendingSlotConsumers = remainingSlots.isEmpty() ? null : slotConsumers;
+        eventConsumersRef.set(eventConsumers);
+    }
+
+    /**
+     * Forget the items written by the last update, so the next update writes every slot.
+     * Call this if the inventory contents are changed outside {@link #update()}.
+     */
+    public void invalidateContents() {
+        this.writtenContents = null;
+        this.renderedContents = null;
+    }
+
+    /**
+     * Check if the inventory is being viewed by any player
+     *
+     * @return true if it is
+     */
+    public boolean isViewing() {
+        return !viewers.isEmpty();
+    }
+
+    /**
+     * Set the listener called with true when the first player opens the inventory, and with false when the last player closes it.
+     * Use this to schedule the updates of the inventory only while it's being viewed.
+     * Note that the listener is called on the thread that handles the open and close events.
+     *
+     * @param viewingListener the listener
+     */
+    public void setViewingListener(@Nullable Consumer<Boolean> viewingListener) {
+        this.viewingListener = viewingListener;
+    }
+
+    private void handleViewerAdded(UUID playerId) {
+        if (viewers.add(playerId) && viewers.size() == 1) {
+            if (suspended.compareAndSet(true, false)) {
+                Element.handleIfElement(mask, element -> element.resume(viewerId));
+                Element.handleIfElement(defaultButton, element -> element.resume(viewerId));
+            }
+            Consumer<Boolean> listener = this.viewingListener;
+            if (listener != null) {
+                listener.accept(true);
+            }
+        }
+    }
+
+    private void handleViewerRemoved(UUID playerId) {
+        if (viewers.remove(playerId) && viewers.isEmpty()) {
+            if (suspended.compareAndSet(false, true)) {
+                Element.handleIfElement(mask, element -> element.suspend(viewerId));
+                Element.handleIfElement(defaultButton, element -> element.suspend(viewerId));
+            }
+            Consumer<Boolean> listener = this.viewingListener;
+            if (listener != null) {
+                listener.accept(false);
+            }
+        }
+    }
+
+    void handleOpen(InventoryOpenEvent event) {
+        invalidateContents();
+        handleViewerAdded(event.getPlayer().getUniqueId());
+        this.onOpen(event);
+    }
 
-        eventConsumerMapRef.set(consumerMap);
+    void handleClose(InventoryCloseEvent event) {
+        handleViewerRemoved(event.getPlayer().getUniqueId());
+        this.onClose(event);
     }
 
     void handleClick(InventoryClickEvent event) {
@@ -220,9 +427,10 @@ public class SpigotInventoryUI implements InventoryHolder {
             return;
         }
 
-        Map<Integer, Consumer<Object>> consumerMap = eventConsumerMapRef.get();
-        if (consumerMap == null) return;
-        Consumer<Object> consumer = consumerMap.get(event.getRawSlot());
+        Consumer<Object>[] eventConsumers = eventConsumersRef.get();
+        int slot = event.getRawSlot();
+        if (eventConsumers == null || !layout.isValidSlot(slot) || slot >= eventConsumers.length) return;
+        Consumer<Object> consumer = eventConsumers[slot];
         if (consumer == null) return;
 
         consumer.accept(event);
@@ -231,7 +439,7 @@ public class SpigotInventoryUI implements InventoryHolder {
     void handleDrag(InventoryDragEvent event) {
         boolean slotInInventory = false;
         for (int slot : event.getRawSlots()) {
-            if (slot < inventory.getSize()) {
+            if (layout.isValidSlot(slot)) {
                 slotInInventory = true;
                 break;
             }
@@ -49,7 +49,7 @@ public final class SpigotInventoryUIListener implements Listener {
     public void onOpen(InventoryOpenEvent event) {
         SpigotInventoryUI ui = getUI(event);
         if (ui == null) return;
-        ui.onOpen(event);
+        ui.handleOpen(event);
     }
 
     @EventHandler
@@ -71,7 +71,7 @@ public final class SpigotInventoryUIListener implements Listener {
     public void onClose(InventoryCloseEvent event) {
         SpigotInventoryUI ui = getUI(event);
         if (ui == null) return;
-        ui.onClose(event);
+        ui.handleClose(event);
     }
 
     @EventHandler
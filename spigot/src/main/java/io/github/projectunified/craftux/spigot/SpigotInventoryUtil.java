@@ -1,7 +1,9 @@
 package io.github.projectunified.craftux.spigot;
 
+import io.github.projectunified.craftux.common.InventoryLayout;
 import io.github.projectunified.craftux.common.Position;
 import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
 
 /**
  * Utility class for Spigot inventory operations
@@ -29,24 +31,54 @@ public interface SpigotInventoryUtil {
     }
 
     /**
-     * Convert a position to a slot index
+     * Get the layout of the inventory type.
+     * The grid inventories are laid out by their rows of {@link #slotPerRow(InventoryType)} slots,
+     * and the other inventories (e.g. furnace, anvil and brewing stand) are laid out as a single row,
+     * which keeps the positions used by the existing masks.
+     *
+     * @param inventoryType the inventory type
+     * @param size          the size of the inventory, which can differ from the default size for chests
+     * @return the layout
+     */
+    static InventoryLayout getLayout(InventoryType inventoryType, int size) {
+        return InventoryLayout.of(slotPerRow(inventoryType), size);
+    }
+
+    /**
+     * Get the layout of the inventory
+     *
+     * @param inventory the inventory
+     * @return the layout
+     */
+    static InventoryLayout getLayout(Inventory inventory) {
+        return getLayout(inventory.getType(), inventory.getSize());
+    }
+
+    /**
+     * Convert a position to a slot index.
+     * The position is not checked against the inventory, so the slot can be out of range.
      *
      * @param position      the position
      * @param inventoryType the inventory type
      * @return the slot index
+     * @deprecated use {@link InventoryLayout#toSlot(Position)} of {@link #getLayout(Inventory)}, which drops the positions outside the inventory
      */
+    @Deprecated
     static int toSlot(Position position, InventoryType inventoryType) {
         int slotPerRow = slotPerRow(inventoryType);
         return position.getX() + position.getY() * slotPerRow;
     }
 
     /**
-     * Convert a slot index to a position
+     * Convert a slot index to a position.
+     * The slot is not checked against the inventory.
      *
      * @param slot          the slot index
      * @param inventoryType the inventory type
      * @return the position
+     * @deprecated use {@link InventoryLayout#toPosition(int)} of {@link #getLayout(Inventory)}, which checks the slot
      */
+    @Deprecated
     static Position toPosition(int slot, InventoryType inventoryType) {
         int slotPerRow = slotPerRow(inventoryType);
         if (slotPerRow < 1) {